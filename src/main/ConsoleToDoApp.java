@@ -1,6 +1,9 @@
 import model.*;
+import utility.BulkImporter;
 import utility.JsonFileIO;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 // A simple "To Do" app
@@ -16,7 +19,7 @@ public class ConsoleToDoApp {
         try {
             todo = JsonFileIO.read();
         } catch (Exception e) {
-            todo = new ArrayList<>();
+            todo = new TaskList();
         }
         printLogo();
         while (!exit) {
@@ -32,6 +35,8 @@ public class ConsoleToDoApp {
                 break;
             case 'D': displayTaskDetails();
                 break;
+            case 'I': importTasks();
+                break;
             case 'Q':
                 if (!todo.isEmpty()) {
                     JsonFileIO.write(todo);
@@ -56,10 +61,25 @@ public class ConsoleToDoApp {
     
     private static void addNewTask() {
         if (getDescriptionForTask()) {
-            todo.add(new Task(userInput));
+            Task task = new Task(userInput);
+            todo.add(task);
+            if (JsonFileIO.getJournal() != null) {
+                JsonFileIO.getJournal().recordAdded(task);
+            }
         }
     }
     
+    private static void importTasks() {
+        System.out.println("Enter the path of a CSV, NDJSON or JSON file:");
+        System.out.print("> ");
+        File file = new File(input.nextLine().trim());
+        try {
+            new BulkImporter(todo, BulkImporter.DEFAULT_BATCH_SIZE, System.out::println).importFile(file);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Cannot import " + file + ": " + e.getMessage());
+        }
+    }
+
     private static boolean getDescriptionForTask() {
         System.out.println("Enter task description:");
         System.out.print("> ");
@@ -104,6 +124,7 @@ public class ConsoleToDoApp {
         System.out.println("You can ...");
         System.out.println("\tEnter A to add a new task;");
         System.out.println("\tEnter D to show tasks' details;");
+        System.out.println("\tEnter I to import tasks from a file;");
         System.out.println("\tEnter Q to quit.");
         System.out.print("> ");
     }
@@ -3,10 +3,17 @@ package controller;
 import com.jfoenix.controls.JFXButton;
 import com.jfoenix.controls.JFXNodesList;
 import javafx.fxml.FXML;
+import javafx.scene.control.TextInputDialog;
+import model.Project;
+import model.exceptions.EmptyStringException;
 import ui.AddTask;
 import ui.PomoTodoApp;
+import utility.JsonFileIO;
 import utility.Logger;
 
+import java.io.IOException;
+import java.util.List;
+
 // Controller class for AddButton UI
 public class AddButtonController {
     @FXML
@@ -29,8 +36,35 @@ public class AddButtonController {
     // EFFECTS: Open the "Add new project" UI
     @FXML
     public void onNewProject() {
-        Logger.log("AddButtonController", "Adding project is not supported in this version.");
+        Logger.log("AddButtonController", "Add new project.");
         closeNodeList();
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("New project");
+        dialog.setHeaderText(null);
+        dialog.setContentText("Description:");
+        dialog.showAndWait().ifPresent(this::addProject);
+    }
+
+    // EFFECTS: adds a project with the given description to the projects in PomoTodoApp and saves them in
+    //          the background, unless the description is empty or there already is a project with that
+    //          description; if the save fails, the projects are still saved when the application ends
+    private void addProject(String description) {
+        try {
+            Project project = new Project(description.trim());
+            List<Project> projects = PomoTodoApp.getProjects();
+            if (projects.contains(project)) {
+                Logger.log("AddButtonController", "Cannot create two projects with the same description!");
+                return;
+            }
+            projects.add(project);
+            PomoTodoApp.getSaveScheduler().submit(JsonFileIO.prepareProjectsSave(projects), "projects",
+                    () -> Logger.log("AddButtonController", "Projects will be saved on exit"));
+            Logger.log("AddButtonController", "Added new project.");
+        } catch (EmptyStringException e) {
+            Logger.log("AddButtonController", "Failed to create a new project with no description");
+        } catch (IOException e) {
+            Logger.log("AddButtonController", "Failed to save projects, they will be saved on exit: " + e);
+        }
     }
     
     // EFFECTS: closes the node list
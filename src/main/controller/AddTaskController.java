@@ -3,14 +3,12 @@ package controller;
 import com.jfoenix.controls.JFXButton;
 import com.jfoenix.controls.JFXTextArea;
 import javafx.fxml.FXML;
-import model.Project;
 import model.Task;
 import ui.ListView;
 import ui.PomoTodoApp;
+import utility.JsonFileIO;
 import utility.Logger;
 
-import java.util.List;
-
 // Controller class for AddTask UI
 public class AddTaskController {
     @FXML
@@ -40,13 +38,13 @@ public class AddTaskController {
 
     // EFFECTS: Add new tasks that are not already on the list
     private void attemptToAddTask(Task task) {
-        Project myProj = new Project("currentList");
-        List<Task> myTasks = PomoTodoApp.getTasks();
-        for (Task t : myTasks) {
-            myProj.add(t);
-        }
-        if (!myProj.contains(task)) {
-            PomoTodoApp.getTasks().add(task);
+        if (!PomoTodoApp.getTasks().contains(task)) {
+            JsonFileIO.Save append = JsonFileIO.add(PomoTodoApp.getTasks(), task);
+            if (append != null) {
+                PomoTodoApp.getSaveScheduler().submit(append);
+            } else {
+                PomoTodoApp.getSaveScheduler().requestSave();
+            }
             Logger.log("AddNewTask", "Added new task.");
         } else {
             Logger.log("AddNewTask", "Cannot create two identical tasks in the same project!");
@@ -6,11 +6,14 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import model.DueDate;
+import model.Priority;
 import model.Status;
 import model.Tag;
 import model.Task;
+import persistence.TaskJournal;
 import ui.ListView;
 import ui.PomoTodoApp;
+import utility.JsonFileIO;
 import utility.Logger;
 
 import java.net.URL;
@@ -22,6 +25,7 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.ResourceBundle;
 
 // Controller class for EditTask UI
@@ -45,6 +49,7 @@ public class EditTaskController implements Initializable {
     @FXML
     private JFXButton cancelButton;
     private Task task;
+    private TaskJournal journal;  // logs the changes saved field by field, or null (see saveTask)
     
     // REQUIRES: task != null
     // MODIFIES: this
@@ -70,7 +75,6 @@ public class EditTaskController implements Initializable {
         for (Tag t : task.getTags()) {
             tags.getChips().add(t.getName());
         }
-        saveTags();
     }
 
     
@@ -121,14 +125,22 @@ public class EditTaskController implements Initializable {
     
     // REQUIRES: task != null
     // MODIFIES: this
-    // EFFECTS: save the updates on UI to task
+    // EFFECTS: save the updates on UI to task; fields that were not changed are left alone
+    //     in journal mode, each field changed is logged on its own and task is then marked saved, so that
+    //     the next save does not log it again in full; a task that already had changes that were not
+    //     logged is left to be logged in full by the next save instead
     @FXML
     public void saveTask() {
+        journal = task.isDirty() ? null : JsonFileIO.getJournal();
         saveDescription();
         saveDueDate();
         saveStatus();
         savePriority();
         saveTags();
+        if (journal != null) {
+            task.markClean();
+        }
+        PomoTodoApp.getSaveScheduler().requestSave();
         Logger.log("EditTaskController", "Save task:\n" + task);
         PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
     }
@@ -136,11 +148,16 @@ public class EditTaskController implements Initializable {
     // REQUIRES: task != null
     private void saveDescription() {
         Logger.log("EditTaskController", "Save description");
+        String before = task.getDescription();
         task.setDescription(description.getText());
+        if (journal != null && !task.getDescription().equals(before)) {
+            journal.recordDescription(task);
+        }
     }
     
     // REQUIRES: task != null
     private void saveDueDate() {
+        DueDate before = task.getDueDate();
         String dateStr = datePicker.getValue() + " " + timePicker.getValue();
         String pattern = "yyyy-MM-dd HH:mm";
         SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
@@ -150,40 +167,80 @@ public class EditTaskController implements Initializable {
         } catch (ParseException e) {
             date = null;
         }
-        if (date == null) {
-            Logger.log("EditTaskController", "No due date is given");
-            task.setDueDate(Task.NO_DUE_DATE);
-        } else {
-            Logger.log("EditTaskController", "Save due date");
-            task.setDueDate(new DueDate(date));
+        DueDate dueDate = date == null ? Task.NO_DUE_DATE : new DueDate(date);
+        if (Objects.equals(dueDate, before)) {
+            return;
+        }
+        Logger.log("EditTaskController", date == null ? "No due date is given" : "Save due date");
+        task.setDueDate(dueDate);
+        if (journal != null) {
+            journal.recordDueDate(task);
         }
     }
     
     // REQUIRES: task != null
+    // EFFECTS: removes the tags of task that have no chip and adds a tag for each new chip;
+    //     the tags that still have a chip are kept as they are
     private void saveTags() {
-        Logger.log("EditTaskController", "Delete the tags in task");
-        List<Tag> tagsToBeRemoved = new ArrayList<>(task.getTags());
-        for (Tag t : tagsToBeRemoved) {
-            task.removeTag(t);
-        }
         Logger.log("EditTaskController", "Save the tags to task");
+        List<Tag> tagsBefore = new ArrayList<>(task.getTags());
         ObservableList<String> chips = tags.getChips();
+        for (Tag t : tagsBefore) {
+            if (!chips.contains(t.getName())) {
+                task.removeTag(t);
+            }
+        }
         for (String name : chips) {
             task.addTag(name);
         }
+        journalTagChanges(tagsBefore);
+    }
+
+    // REQUIRES: task != null
+    // EFFECTS: records the tags added to and removed from task in the persistence journal
+    private void journalTagChanges(List<Tag> tagsBefore) {
+        if (journal == null) {
+            return;
+        }
+        for (Tag t : tagsBefore) {
+            if (!task.containsTag(t)) {
+                journal.recordTagRemoved(task, t.getName());
+            }
+        }
+        for (Tag t : task.getTags()) {
+            if (!tagsBefore.contains(t)) {
+                journal.recordTagAdded(task, t.getName());
+            }
+        }
     }
     
     // REQUIRES: task != null
     private void saveStatus() {
         Logger.log("EditTaskController", "Save status");
-        task.setStatus((Status) statusComboBox.getValue());
+        Status status = (Status) statusComboBox.getValue();
+        if (status == task.getStatus()) {
+            return;
+        }
+        task.setStatus(status);
+        if (journal != null) {
+            journal.recordStatus(task);
+        }
     }
     
     // REQUIRES: task != null
     private void savePriority() {
         Logger.log("EditTaskController", "Save priority");
-        task.getPriority().setImportant(isImportantBox.isSelected());
-        task.getPriority().setUrgent(isUrgentBox.isSelected());
+        boolean changed = task.getPriority().isImportant() != isImportantBox.isSelected()
+                || task.getPriority().isUrgent() != isUrgentBox.isSelected();
+        if (changed) {
+            Priority priority = new Priority(4);
+            priority.setImportant(isImportantBox.isSelected());
+            priority.setUrgent(isUrgentBox.isSelected());
+            task.setPriority(priority);
+        }
+        if (journal != null && changed) {
+            journal.recordPriority(task);
+        }
     }
     
     @FXML
@@ -1,22 +1,68 @@
 package controller;
 
+import com.jfoenix.controls.JFXButton;
+import com.jfoenix.controls.JFXProgressBar;
 import javafx.fxml.FXML;
+import javafx.scene.Node;
 import javafx.scene.layout.VBox;
 import model.Task;
 import ui.Todobar;
 
+import java.util.Collections;
 import java.util.List;
 
 // Controller class for ListView UI
+// Only the first PAGE_SIZE tasks are shown at first; each click on the "show more" button shows PAGE_SIZE more
 public class ListViewController {
+    public static final int PAGE_SIZE = 100;
     @FXML
     private VBox tasks;
-    
-    // EFFECTS: adds Todobar UI to ListView UI for each task
+    @FXML
+    private JFXProgressBar loadingProgress;
+    @FXML
+    private JFXButton showMoreButton;
+    private List<Task> shownTasks = Collections.emptyList();
+    private int pageEnd = PAGE_SIZE;
+
+    // MODIFIES: this
+    // EFFECTS: adds Todobar UI to ListView UI for each task on the first page of tasks
     public void setData(List<Task> tasks) {
-        for (Task t : tasks) {
-            Todobar todobar = new Todobar(t);
-            this.tasks.getChildren().add(todobar);
+        shownTasks = tasks;
+        refresh();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds Todobar UI for each task on the pages shown that was added to the tasks since the last
+    //          refresh, and shows the "show more" button if some tasks are not shown
+    //          tasks may only have been added to the end of the tasks since
+    public void refresh() {
+        List<Node> children = tasks.getChildren();
+        int end = Math.min(pageEnd, shownTasks.size());
+        for (int i = children.size(); i < end; i++) {
+            children.add(new Todobar(shownTasks.get(i)));
         }
+        int hidden = shownTasks.size() - end;
+        showMoreButton.setText("Show " + Math.min(hidden, PAGE_SIZE) + " more (" + hidden + " not shown)");
+        showMoreButton.setVisible(hidden > 0);
+        showMoreButton.setManaged(hidden > 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the next page of tasks
+    @FXML
+    public void onShowMore() {
+        pageEnd += PAGE_SIZE;
+        refresh();
+    }
+
+    // EFFECTS: shows the loading progress bar if loading, hides it otherwise
+    public void setLoading(boolean loading) {
+        loadingProgress.setVisible(loading);
+        loadingProgress.setManaged(loading);
+    }
+
+    // EFFECTS: sets the loading progress bar to progress, from 0 to 1, or to indeterminate if progress < 0
+    public void setProgress(double progress) {
+        loadingProgress.setProgress(progress < 0 ? JFXProgressBar.INDETERMINATE_PROGRESS : progress);
     }
-}
\ No newline at end of file
+}
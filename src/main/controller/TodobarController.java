@@ -17,6 +17,7 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import model.Project;
+import model.Tag;
 import model.Task;
 import ui.EditTask;
 import ui.EditTaskDemo;
@@ -28,7 +29,7 @@ import utility.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.util.List;
+import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 // Controller class for Todobar UI
@@ -155,10 +156,13 @@ public class TodobarController implements Initializable {
             PomoTodoApp.setScene(new EditTask(task));
         }
 
-        // EFFECTS: removes this task from our list
+        // EFFECTS: removes this task from our list, and from the tags it had
         private void removeTask(Task task) {
-            List<Task> myTasks = PomoTodoApp.getTasks();
-            myTasks.remove(task);
+            JsonFileIO.remove(PomoTodoApp.getTasks(), task);
+            for (Tag tag : new ArrayList<>(task.getTags())) {
+                tag.removeTask(task);
+            }
+            PomoTodoApp.getSaveScheduler().requestSave();
         }
 
     }
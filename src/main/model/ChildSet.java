@@ -0,0 +1,325 @@
+package model;
+
+import java.util.AbstractCollection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Represents the children of a project: a set of todos (no two equal) in the order they were added.
+// Children are indexed by hash code in a hash table whose entries are also linked in order, so adding,
+// finding and removing a child take constant time on average, and removing one does not shift the rest.
+// Each entry is also linked into one of four priority levels (important & urgent, important, urgent,
+// neither), in the order the children were added, so the children can be walked in priority order in
+// linear time without allocating anything but the iterator.
+// A child's entry keeps the hash code and level it was indexed under; when a child's fields change, its
+// entry must be updated, which Todo does for the projects it is part of when a field that equals
+// compares, or the priority, is set.
+class ChildSet extends AbstractCollection<Todo> {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int LEVELS = 4;
+
+    private Entry[] table;
+    private Entry first;
+    private Entry last;
+    private final Entry[] levelFirst = new Entry[LEVELS];
+    private final Entry[] levelLast = new Entry[LEVELS];
+    private long nextSequence;
+    private int size;
+    private int modCount;
+
+    // Represents a child, linked into its bucket of the hash table, into the order of the children and
+    // into the order of the children at its priority level; sequence numbers the children in the order
+    // they were added
+    private static class Entry {
+        private final Todo todo;
+        private final long sequence;
+        private int hash;
+        private int level;
+        private Entry nextInBucket;
+        private Entry before;
+        private Entry after;
+        private Entry beforeInLevel;
+        private Entry afterInLevel;
+
+        Entry(Todo todo, long sequence) {
+            this.todo = todo;
+            this.sequence = sequence;
+            this.hash = hash(todo);
+            this.level = level(todo);
+        }
+    }
+
+    // EFFECTS: returns the number of children
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns true if there is a child equal to o
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Todo && find((Todo) o) != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds todo after the last child and returns true, unless there already is a child equal to it
+    @Override
+    public boolean add(Todo todo) {
+        if (find(todo) != null) {
+            return false;
+        }
+        if (table == null || size >= table.length * 3 / 4) {
+            resize();
+        }
+        Entry entry = new Entry(todo, nextSequence++);
+        link(entry);
+        linkLast(entry);
+        linkLevel(entry);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the child equal to todo and returns it, or returns null if there is none
+    public Todo removeEqual(Todo todo) {
+        Entry entry = find(todo);
+        if (entry == null) {
+            return null;
+        }
+        unlink(entry);
+        unlinkLevel(entry);
+        if (entry.before == null) {
+            first = entry.after;
+        } else {
+            entry.before.after = entry.after;
+        }
+        if (entry.after == null) {
+            last = entry.before;
+        } else {
+            entry.after.before = entry.before;
+        }
+        size--;
+        modCount++;
+        return entry.todo;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the child equal to o; returns true if there was one
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Todo && removeEqual((Todo) o) != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes child, which was indexed under oldHash, under its current hash code and priority
+    //     level instead; does nothing if child is not one of the children
+    void update(Todo child, int oldHash) {
+        Entry entry = table == null ? null : table[spread(oldHash) & (table.length - 1)];
+        while (entry != null && entry.todo != child) {
+            entry = entry.nextInBucket;
+        }
+        if (entry == null) {
+            return;
+        }
+        if (entry.hash != hash(child)) {
+            unlink(entry);
+            entry.hash = hash(child);
+            link(entry);
+        }
+        if (entry.level != level(child)) {
+            unlinkLevel(entry);
+            entry.level = level(child);
+            linkLevel(entry);
+            modCount++;
+        }
+    }
+
+    // EFFECTS: returns an iterator over the children in the order they were added
+    @Override
+    public Iterator<Todo> iterator() {
+        return new Iterator<Todo>() {
+            private Entry next = first;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Todo next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Todo todo = next.todo;
+                next = next.after;
+                return todo;
+            }
+        };
+    }
+
+    // EFFECTS: returns an iterator over the children in priority order: first the important and urgent
+    //     ones, then the important ones, then the urgent ones, then the rest, each in the order they were added
+    Iterator<Todo> priorityIterator() {
+        return new PriorityIterator();
+    }
+
+    // Represents a walk over the children in priority order, one level after the other
+    private class PriorityIterator implements Iterator<Todo> {
+        private final int expectedModCount = modCount;
+        private int level;
+        private Entry next;
+
+        PriorityIterator() {
+            next = levelFirst[0];
+            skipEmptyLevels();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Todo next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Todo todo = next.todo;
+            next = next.afterInLevel;
+            skipEmptyLevels();
+            return todo;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: moves on to the first child of the next non-empty level if the current level is done
+        private void skipEmptyLevels() {
+            while (next == null && level < LEVELS - 1) {
+                level++;
+                next = levelFirst[level];
+            }
+        }
+    }
+
+    // EFFECTS: returns the entry of the child equal to todo, or null if there is none
+    private Entry find(Todo todo) {
+        if (table == null) {
+            return null;
+        }
+        int hash = hash(todo);
+        for (Entry e = table[hash & (table.length - 1)]; e != null; e = e.nextInBucket) {
+            if (e.hash == hash && (e.todo == todo || e.todo.equals(todo))) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts entry at the head of its bucket
+    private void link(Entry entry) {
+        int index = entry.hash & (table.length - 1);
+        entry.nextInBucket = table[index];
+        table[index] = entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes entry out of its bucket
+    private void unlink(Entry entry) {
+        int index = entry.hash & (table.length - 1);
+        if (table[index] == entry) {
+            table[index] = entry.nextInBucket;
+            return;
+        }
+        Entry e = table[index];
+        while (e.nextInBucket != entry) {
+            e = e.nextInBucket;
+        }
+        e.nextInBucket = entry.nextInBucket;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts entry, the child added last, at the end of the order of the children
+    private void linkLast(Entry entry) {
+        entry.before = last;
+        if (last == null) {
+            first = entry;
+        } else {
+            last.after = entry;
+        }
+        last = entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts entry into the order of the children at its level, after those that were added before it;
+    //     takes constant time if entry was added after all of them, as it is when it has just been added
+    private void linkLevel(Entry entry) {
+        Entry previous = levelLast[entry.level];
+        while (previous != null && previous.sequence > entry.sequence) {
+            previous = previous.beforeInLevel;
+        }
+        Entry following = previous == null ? levelFirst[entry.level] : previous.afterInLevel;
+        entry.beforeInLevel = previous;
+        entry.afterInLevel = following;
+        if (previous == null) {
+            levelFirst[entry.level] = entry;
+        } else {
+            previous.afterInLevel = entry;
+        }
+        if (following == null) {
+            levelLast[entry.level] = entry;
+        } else {
+            following.beforeInLevel = entry;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes entry out of the order of the children at its level
+    private void unlinkLevel(Entry entry) {
+        if (entry.beforeInLevel == null) {
+            levelFirst[entry.level] = entry.afterInLevel;
+        } else {
+            entry.beforeInLevel.afterInLevel = entry.afterInLevel;
+        }
+        if (entry.afterInLevel == null) {
+            levelLast[entry.level] = entry.beforeInLevel;
+        } else {
+            entry.afterInLevel.beforeInLevel = entry.beforeInLevel;
+        }
+        entry.beforeInLevel = null;
+        entry.afterInLevel = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the number of buckets (or creates the first ones), re-indexing every child
+    private void resize() {
+        table = new Entry[table == null ? INITIAL_CAPACITY : table.length * 2];
+        for (Entry e = first; e != null; e = e.after) {
+            link(e);
+        }
+    }
+
+    // EFFECTS: returns the priority level of todo: 0 if it is important and urgent, 1 if it is only important,
+    //     2 if it is only urgent and 3 otherwise
+    private static int level(Todo todo) {
+        Priority priority = todo.getPriority();
+        return (priority.isImportant() ? 0 : 2) + (priority.isUrgent() ? 0 : 1);
+    }
+
+    // EFFECTS: returns the hash code of todo, with its high bits spread over the low ones
+    private static int hash(Todo todo) {
+        return spread(todo.hashCode());
+    }
+
+    // EFFECTS: returns h with its high bits spread over the low ones, which pick the bucket
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,87 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+// Represents a project loaded from storage whose tasks and sub-projects are only read the first time
+// the project is expanded, i.e. the first time anything asks for its children. Until then it keeps the
+// encoded records of its whole subtree, so a workspace with thousands of projects opens by reading only
+// the projects at the top. Its description, priority, progress and estimated time to complete are known
+// without expanding it (the last two as they were saved, until expanding it brings them up to date); an
+// unexpanded project is clean, and its subtree can be saved again as it was read, without decoding it.
+public class LazyProject extends Project {
+    private volatile ChildDecoder decoder;
+    private ByteBuffer records;
+    private final int lines;
+    private boolean expanding;
+
+    // Decodes the encoded records of a subtree into the children of a project
+    public interface ChildDecoder {
+        // EFFECTS: decodes the direct children in records, the subtree of a project, and passes each
+        //     to childConsumer in order
+        void decode(ByteBuffer records, Consumer<Todo> childConsumer);
+    }
+
+    // REQUIRES: 0 <= progress <= 100 and etcHours >= 0
+    // EFFECTS: constructs a project with the given description, priority, progress and estimated time to
+    //     complete whose children are decoded from records, which hold lines lines, by decoder when it is
+    //     first expanded; records must not be changed afterwards
+    //  throws EmptyStringException if description is null or empty
+    public LazyProject(String description, Priority priority, int progress, int etcHours, ByteBuffer records,
+                       int lines, ChildDecoder decoder) {
+        super(description);
+        this.priority = priority;
+        setTotals(progress, etcHours);
+        this.records = records;
+        this.lines = lines;
+        this.decoder = decoder;
+        markClean();
+    }
+
+    // EFFECTS: returns true if the children of this project have been read
+    public boolean isExpanded() {
+        return decoder == null;
+    }
+
+    // EFFECTS: returns the encoded records of the subtree of this project, or null once it has been expanded
+    public ByteBuffer getRecords() {
+        ByteBuffer unexpanded = records;
+        return decoder == null || unexpanded == null ? null : unexpanded.asReadOnlyBuffer();
+    }
+
+    // EFFECTS: returns the number of lines in the encoded records of the subtree of this project
+    public int getRecordLines() {
+        return lines;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the children of this project, unless they have been read already
+    @Override
+    protected void expand() {
+        if (decoder != null) {
+            expandOnce();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the children of this project, exactly once even if several threads use it at once;
+    //     calls made while the children are being read see the children read so far
+    private synchronized void expandOnce() {
+        if (decoder == null || expanding) {
+            return;
+        }
+        expanding = true;
+        boolean clean = !isDirty();
+        try {
+            decoder.decode(records, this::addExpanded);
+            updateTotals();
+        } finally {
+            records = null;
+            expanding = false;
+            if (clean) {
+                markClean();
+            }
+            decoder = null;
+        }
+    }
+}
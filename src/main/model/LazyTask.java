@@ -0,0 +1,228 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+// Represents a task loaded from storage that keeps its encoded record and is only decoded the first
+// time it is used, so the tasks of a huge list that are never looked at cost little more than their
+// bytes. Every method that reads or changes the task decodes it first, so it behaves exactly like
+// the task its record decodes to. An undecoded task is clean; its tags only know about it once it is
+// decoded. A record that turns out to be malformed decodes as a task described as UNREADABLE.
+// Until the task is changed, its record is kept if it is not decoded or could not be decoded, so it can
+// be saved again as it was read (see getRecord) instead of being decoded, or replaced by UNREADABLE.
+public class LazyTask extends Task {
+    public static final String UNREADABLE = "Unreadable task";
+    private static final String PENDING = "Pending task";
+
+    private volatile RecordDecoder decoder;
+    private final RecordDecoder format;
+    private ByteBuffer record;
+    private boolean decoding;
+
+    // Decodes an encoded record into a task
+    public interface RecordDecoder {
+        // MODIFIES: task
+        // EFFECTS: sets the description, tags, due date, priority and status of task from record;
+        //     returns false, leaving task unchanged, if record is not a valid task
+        boolean decode(ByteBuffer record, Task task);
+    }
+
+    // EFFECTS: constructs a task that is decoded from record by decoder when it is first used;
+    //     record must not be changed afterwards
+    public LazyTask(ByteBuffer record, RecordDecoder decoder) {
+        super(PENDING);
+        this.record = record;
+        this.decoder = decoder;
+        format = decoder;
+        markClean();
+    }
+
+    // EFFECTS: returns the record this task was read from, if it was to be decoded by format, and this task
+    //     has either not been decoded yet or could not be decoded and has not changed since; returns null
+    //     otherwise. The record is returned without being decoded.
+    public synchronized ByteBuffer getRecord(RecordDecoder format) {
+        return record != null && this.format == format ? record.duplicate() : null;
+    }
+
+    // EFFECTS: returns true if this task has been decoded from its record
+    public boolean isDecoded() {
+        return decoder == null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes this task from its record, unless it has been decoded already
+    public void decode() {
+        if (decoder != null) {
+            decodeOnce();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes this task from its record, exactly once even if several threads use it at once;
+    //     calls made by the decoder itself see the task as decoded. The record is only kept if it could
+    //     not be decoded.
+    private synchronized void decodeOnce() {
+        if (decoder == null || decoding) {
+            return;
+        }
+        decoding = true;
+        ByteBuffer unreadable = null;
+        try {
+            if (!decoder.decode(record, this)) {
+                unreadable = record;
+                super.setDescription(UNREADABLE);
+            }
+        } catch (RuntimeException e) {
+            unreadable = record;
+            super.setDescription(UNREADABLE);
+        } finally {
+            record = unreadable;
+            decoding = false;
+            markClean();
+            decoder = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes this task before it is changed, and forgets its record, which no longer describes it
+    private void change() {
+        decode();
+        synchronized (this) {
+            if (!decoding) {
+                record = null;
+            }
+        }
+    }
+
+    @Override
+    public void addTag(String tagName) {
+        change();
+        super.addTag(tagName);
+    }
+
+    @Override
+    public void addTag(Tag tag) {
+        change();
+        super.addTag(tag);
+    }
+
+    @Override
+    public void removeTag(String tagName) {
+        change();
+        super.removeTag(tagName);
+    }
+
+    @Override
+    public void removeTag(Tag tag) {
+        change();
+        super.removeTag(tag);
+    }
+
+    @Override
+    public Set<Tag> getTags() {
+        decode();
+        return super.getTags();
+    }
+
+    @Override
+    public boolean containsTag(String tagName) {
+        decode();
+        return super.containsTag(tagName);
+    }
+
+    @Override
+    public boolean containsTag(Tag tag) {
+        decode();
+        return super.containsTag(tag);
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        change();
+        super.setStatus(status);
+    }
+
+    @Override
+    public Status getStatus() {
+        decode();
+        return super.getStatus();
+    }
+
+    @Override
+    public void setDescription(String description) {
+        change();
+        super.setDescription(description);
+    }
+
+    @Override
+    public String getDescription() {
+        decode();
+        return super.getDescription();
+    }
+
+    @Override
+    public void setDueDate(DueDate dueDate) {
+        change();
+        super.setDueDate(dueDate);
+    }
+
+    @Override
+    public DueDate getDueDate() {
+        decode();
+        return super.getDueDate();
+    }
+
+    @Override
+    public void setPriority(Priority priority) {
+        change();
+        super.setPriority(priority);
+    }
+
+    @Override
+    public Priority getPriority() {
+        decode();
+        return super.getPriority();
+    }
+
+    @Override
+    public void setProgress(int progress) {
+        change();
+        super.setProgress(progress);
+    }
+
+    @Override
+    public int getProgress() {
+        decode();
+        return super.getProgress();
+    }
+
+    @Override
+    public void setEstimatedTimeToComplete(int hours) {
+        change();
+        super.setEstimatedTimeToComplete(hours);
+    }
+
+    @Override
+    public int getEstimatedTimeToComplete() {
+        decode();
+        return super.getEstimatedTimeToComplete();
+    }
+
+    @Override
+    public String toString() {
+        decode();
+        return super.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        decode();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        decode();
+        return super.hashCode();
+    }
+}
@@ -1,15 +1,28 @@
 package model;
 
+import model.exceptions.CyclicProjectException;
 import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
 
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // Represents a Project, a collection of zero or more Tasks
 // Class Invariant: no duplicated task; order of tasks is preserved
+// Tasks are kept in a ChildSet, so adding, finding and removing one takes constant time on average,
+// and iterating over them in priority order takes linear time.
+// The progress and estimated time to complete of a project are kept up to date as its children change,
+// from totals over its children, so reading them takes constant time however large the project is.
+// A project cannot be added to a project below it, so projects form trees (a todo may still be part of
+// several projects); they are walked and changes are passed up without recursion, so trees of any depth work.
 public class Project extends Todo implements Iterable<Todo> {
     private String description;
-    private List<Todo> tasks;
+    private ChildSet tasks;
+    private int taskCount;  // children that are tasks rather than sub-projects
+    private long taskProgress;  // total progress of those tasks
+    private long subProjectProgress;  // total progress of the sub-projects
+    private long childEtcHours;  // total estimated time to complete of all children
 
     // MODIFIES: this
     // EFFECTS: constructs a project with the given description
@@ -21,15 +34,25 @@ public class Project extends Todo implements Iterable<Todo> {
             throw new EmptyStringException("Cannot construct a project with no description");
         }
         this.description = description;
-        this.tasks = new ArrayList<>();
+        this.tasks = new ChildSet();
     }
 
     // MODIFIES: this
     // EFFECTS: task is added to this project (if it was not already part of it)
     //   throws NullArgumentException when task is null
+    //   throws CyclicProjectException when task is a project that this project is (directly or indirectly) part of
     public void add(Todo task) {
-        if (!this.equals(task) && !contains(task)) {
-            tasks.add(task);
+        expand();
+        if (task == null) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+        if (task instanceof Project && !((Project) task).tasks.isEmpty() && hasAncestor((Project) task)) {
+            throw new CyclicProjectException("Cannot add a project to a project it contains");
+        }
+        if (!this.equals(task) && tasks.add(task)) {
+            count(task, 1);
+            updateTotals();
+            markDirty();
         }
     }
 
@@ -37,8 +60,15 @@ public class Project extends Todo implements Iterable<Todo> {
     // EFFECTS: removes task from this project
     //   throws NullArgumentException when task is null
     public void remove(Todo task) {
-        if (contains(task)) {
-            tasks.remove(task);
+        expand();
+        if (task == null) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+        Todo removed = tasks.removeEqual(task);
+        if (removed != null) {
+            count(removed, -1);
+            updateTotals();
+            markDirty();
         }
     }
 
@@ -47,15 +77,10 @@ public class Project extends Todo implements Iterable<Todo> {
         return description;
     }
 
-    // EFFECTS: returns the estimated time to complete project
+    // EFFECTS: returns the estimated time to complete project, i.e. the total of its tasks and sub-projects
     @Override
     public int getEstimatedTimeToComplete() {
-        Integer est = 0;
-        for (Todo t : tasks) {
-            Integer timeToAdd = t.getEstimatedTimeToComplete();
-            est = est + timeToAdd;
-        }
-        return est;
+        return etcHours;
     }
 
     // EFFECTS: returns an unmodifiable list of tasks in this project.
@@ -64,49 +89,105 @@ public class Project extends Todo implements Iterable<Todo> {
         throw new UnsupportedOperationException();
     }
 
-    // EFFECTS: returns an integer between 0 and 100 which represents
-    //     the percentage of completion (rounded down to the nearest integer).
-    //     the value returned is the average of the percentage of completion of
-    //     all the tasks and sub-projects in this project.
-    public int getProgress() {
-        Integer countTask = 0;
-        Integer totalTasks = 0;
-        Integer totalProject = 0;
-        Integer countProject = 1;
-        for (Todo t : tasks) {
-            if (t.getClass().isInstance(new Task("compare"))) {
-                countTask++;
-                totalTasks = totalTask(t, totalTasks);
-            }
-            if (t.getClass().isInstance(new Project("compare"))) {
-                countProject++;
-                totalProject = t.getProgress();
-            }
+    // EFFECTS: returns the tasks and sub-projects in this project, in the order they were added
+    public Collection<Todo> getChildren() {
+        expand();
+        return Collections.unmodifiableCollection(tasks);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes sure the tasks and sub-projects of this project are in memory; they always are,
+    //     except in a LazyProject whose children have not been read yet
+    protected void expand() {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds child, read from storage, to the end of this project (if it was not already part of it)
+    //     without marking this project as modified
+    void addExpanded(Todo child) {
+        if (tasks.add(child)) {
+            count(child, 1);
         }
-        if (countTask != 0) {
-            return someTasks(countTask, totalTasks, totalProject, countProject);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes child, one of the tasks of this project that was indexed under oldHash, under its
+    //     current hash code and priority instead
+    void childKeyChanged(Todo child, int oldHash) {
+        tasks.update(child, oldHash);
+    }
+
+    // MODIFIES: this, child
+    // EFFECTS: adds child to the totals of this project (if sign is 1) or takes it out of them (if sign is -1)
+    private void count(Todo child, int sign) {
+        int childProgress = child.getProgress();
+        int childEtc = child.getEstimatedTimeToComplete();
+        if (sign > 0) {
+            child.addParent(this);
+        } else {
+            child.removeParent(this);
+        }
+        if (child instanceof Project) {
+            subProjectProgress += sign * childProgress;
+        } else {
+            taskCount += sign;
+            taskProgress += sign * childProgress;
         }
-        return 0;
+        childEtcHours += sign * childEtc;
     }
 
-    private int someTasks(Integer countTask, Integer totalTasks, Integer totalProject, Integer countProject) {
-        Integer avgerageThisProject = totalTasks / countTask;
-        if (countProject == 0) {
-            return avgerageThisProject;
+    // MODIFIES: this
+    // EFFECTS: adds to the totals of this project that the progress of child changed by progressChange
+    //     and its estimated time to complete by etcChange; the progress of this project is not updated yet
+    void childChanged(Todo child, int progressChange, int etcChange) {
+        if (child instanceof Project) {
+            subProjectProgress += progressChange;
+        } else {
+            taskProgress += progressChange;
         }
-        Integer totalAvg = totalProject + avgerageThisProject;
-        return totalAvg / countProject;
+        childEtcHours += etcChange;
     }
 
+    // MODIFIES: this, the projects above this
+    // EFFECTS: sets the progress and estimated time to complete of this project from the totals over its children
+    void updateTotals() {
+        setTotals(progressFromTotals(), etcFromTotals());
+    }
 
-    private Integer totalTask(Todo t, Integer totalTasks) {
-        totalTasks += t.getProgress();
-        return totalTasks;
+    // MODIFIES: this, pending, the projects this is part of
+    // EFFECTS: sets the progress and estimated time to complete of this project from the totals over its
+    //     children; if either changed, passes the change on to the projects this is part of, which are
+    //     pushed onto pending to be updated in turn
+    void storeTotals(Deque<Project> pending) {
+        storeTotals(progressFromTotals(), etcFromTotals(), pending);
     }
 
+    // EFFECTS: returns the estimated time to complete of this project from the totals over its children
+    private int etcFromTotals() {
+        return (int) Math.min(childEtcHours, Integer.MAX_VALUE);
+    }
+
+    // EFFECTS: returns an integer between 0 and 100 which represents
+    //     the percentage of completion (rounded down to the nearest integer).
+    //     the value returned is the average of the percentage of completion of
+    //     all the tasks and sub-projects in this project.
+    public int getProgress() {
+        return progress;
+    }
+
+    // EFFECTS: returns the progress of this project from the totals over its children: the average progress
+    //     of its tasks counts as one more sub-project in the average over its sub-projects; 0 if it has no tasks
+    private int progressFromTotals() {
+        if (taskCount == 0) {
+            return 0;
+        }
+        int subProjects = tasks.size() - taskCount;
+        return (int) ((subProjectProgress + taskProgress / taskCount) / (1 + subProjects));
+    }
 
     // EFFECTS: returns the number of tasks (and sub-projects) in this project
     public int getNumberOfTasks() {
+        expand();
         return tasks.size();
     }
 
@@ -122,9 +203,47 @@ public class Project extends Todo implements Iterable<Todo> {
         if (task == null) {
             throw new NullArgumentException("Illegal argument: task is null");
         }
+        expand();
         return tasks.contains(task);
     }
 
+    // EFFECTS: calls visitor for this project (at depth 0) and for each task and project below it, depth-first,
+    //     each project before its children and the children in the order they were added; a task or project
+    //     that is part of several projects below this one is visited once
+    public void accept(TodoVisitor visitor) {
+        accept(visitor, Integer.MAX_VALUE);
+    }
+
+    // REQUIRES: maxDepth >= 0
+    // EFFECTS: as accept(visitor), but only for the tasks and projects at most maxDepth levels below this project
+    public void accept(TodoVisitor visitor, int maxDepth) {
+        if (!visitor.visitProject(this, 0)) {
+            return;
+        }
+        TreeWalk walk = new TreeWalk(this, maxDepth);
+        while (walk.hasNext()) {
+            Todo todo = walk.next();
+            if (todo instanceof Task) {
+                visitor.visitTask((Task) todo, walk.depth());
+            } else if (!visitor.visitProject((Project) todo, walk.depth())) {
+                walk.skipChildren();
+            }
+        }
+    }
+
+    // EFFECTS: returns the tasks and projects below this project, in the order accept visits them
+    public Stream<Todo> descendants() {
+        return descendants(Integer.MAX_VALUE);
+    }
+
+    // REQUIRES: maxDepth >= 0
+    // EFFECTS: returns the tasks and projects at most maxDepth levels below this project, in the order
+    //     accept visits them
+    public Stream<Todo> descendants(int maxDepth) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new TreeWalk(this, maxDepth),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -146,125 +265,7 @@ public class Project extends Todo implements Iterable<Todo> {
     //        and then priority 4
     @Override
     public Iterator<Todo> iterator() {
-        return new PriorityIterator();
-    }
-
-
-    private class PriorityIterator implements Iterator<Todo> {
-        int p1Index;
-        int p2Index;
-        int p3Index;
-        int p4Index;
-        int totalItemsIteratedOver;
-
-        PriorityIterator() {
-            p1Index = 0;
-            p2Index = 0;
-            p3Index = 0;
-            p4Index = 0;
-            totalItemsIteratedOver = 0;
-        }
-
-        @Override
-        public boolean hasNext() {
-            Integer total = totalItemsIteratedOver;
-            return total < tasks.size();
-        }
-
-        @Override
-        public Todo next() {
-            if (!hasNext()) {
-                throw new NoSuchElementException();
-            }
-            Todo currentTodo = checkSizesP1P2();
-            if (currentTodo != null) {
-                return currentTodo;
-            }
-            Todo currentTodo2 = checkSizesP3P4();
-            if (currentTodo2 != null) {
-                return currentTodo2;
-            }
-            return null;
-        }
-
-        private Todo checkSizesP1P2() {
-            if (p1Index < tasks.size()) {
-                Todo currentTodo = searchForP1Matches();
-                if (currentTodo != null) {
-                    return currentTodo;
-                }
-            }
-            if (p2Index < tasks.size()) {
-                Todo currentTodo = searchForP2Matches();
-                if (currentTodo != null) {
-                    return currentTodo;
-                }
-            }
-            return null;
-        }
-
-        private Todo checkSizesP3P4() {
-            if (p3Index < tasks.size()) {
-                Todo currentTodo = searchForP3Matches();
-                if (currentTodo != null) {
-                    return currentTodo;
-                }
-            }
-            if (p4Index < tasks.size()) {
-                Todo currentTodo = searchForP4Matches();
-                if (currentTodo != null) {
-                    return currentTodo;
-                }
-            }
-            return null;
-        }
-
-        private Todo searchForP1Matches() {
-            for (int i = p1Index; i < tasks.size(); i++) {
-                Todo currentTodo = tasks.get(i);
-                p1Index++;
-                if (currentTodo.getPriority().equals(new Priority(1))) {
-                    totalItemsIteratedOver++;
-                    return currentTodo;
-                }
-            }
-            return null;
-        }
-
-        private Todo searchForP2Matches() {
-            for (int i = p2Index; i < tasks.size(); i++) {
-                Todo currentTodo = tasks.get(i);
-                p2Index++;
-                if (currentTodo.getPriority().equals(new Priority(2))) {
-                    totalItemsIteratedOver++;
-                    return currentTodo;
-                }
-            }
-            return null;
-        }
-
-        private Todo searchForP3Matches() {
-            for (int i = p3Index; i < tasks.size(); i++) {
-                Todo currentTodo = tasks.get(i);
-                p3Index++;
-                if (currentTodo.getPriority().equals(new Priority(3))) {
-                    totalItemsIteratedOver++;
-                    return currentTodo;
-                }
-            }
-            return null;
-        }
-
-        private Todo searchForP4Matches() {
-            for (int i = p4Index; i < tasks.size(); i++) {
-                Todo currentTodo = tasks.get(i);
-                p4Index++;
-                if (currentTodo.getPriority().equals(new Priority(4))) {
-                    totalItemsIteratedOver++;
-                    return currentTodo;
-                }
-            }
-            return null;
-        }
+        expand();
+        return tasks.priorityIterator();
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package model;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Represents totals over the tasks in trees of projects: their estimated time to complete, their average
+// progress, how many there are with each status and how many are overdue (past their due date and not done).
+// Each task and project is counted once, even if it is part of several of the projects summarized, and
+// tasks are overdue as of the time the summary was started.
+// The totals are computed in one pass over the trees on a fork/join pool: a worker walks its part of the
+// trees with a stack of its own, and once it has visited SEQUENTIAL_CUTOFF todos it hands half of the
+// projects still to walk to a new task, so the work spreads over the cores however the trees are shaped.
+// The todos already counted are kept in a concurrent set, by identity, so workers only contend when they
+// mark the same todo, not on every project or shared task they visit.
+// The projects must not be changed while they are summarized.
+public class ProjectSummary {
+    public static final int SEQUENTIAL_CUTOFF = 2048;
+
+    private long etcHours;
+    private long totalProgress;
+    private int taskCount;
+    private int projectCount;
+    private int overdueCount;
+    private final int[] statusCounts = new int[Status.values().length];
+
+    // EFFECTS: constructs a summary of no tasks
+    private ProjectSummary() {
+    }
+
+    // EFFECTS: returns the summary of the trees of projects, computed on the common fork/join pool
+    public static ProjectSummary of(Collection<Project> projects) {
+        return of(projects, ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: returns the summary of the trees of projects, computed on the given fork/join pool
+    public static ProjectSummary of(Collection<Project> projects, ForkJoinPool pool) {
+        Set<Identity> seen = ConcurrentHashMap.newKeySet();
+        return pool.invoke(new Aggregation(new ArrayDeque<>(projects), seen, System.currentTimeMillis()));
+    }
+
+    // EFFECTS: returns the total estimated time to complete of the tasks, in hours
+    public long getEstimatedTimeToComplete() {
+        return etcHours;
+    }
+
+    // EFFECTS: returns the average progress of the tasks, in percent, or 0 if there are none
+    public int getProgress() {
+        return taskCount == 0 ? 0 : (int) (totalProgress / taskCount);
+    }
+
+    // EFFECTS: returns the number of tasks
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    // EFFECTS: returns the number of tasks with the given status
+    public int getTaskCount(Status status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    // EFFECTS: returns the number of tasks that are past their due date and not done
+    public int getOverdueCount() {
+        return overdueCount;
+    }
+
+    // EFFECTS: returns the number of projects, including the ones summarized
+    public int getProjectCount() {
+        return projectCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds task to the totals, counting it as overdue if it is not done and was due before now,
+    //     in milliseconds since the epoch (as DueDate.isOverdue does, without reading the clock per task)
+    private void addTask(Task task, long now) {
+        taskCount++;
+        etcHours += task.getEstimatedTimeToComplete();
+        totalProgress += task.getProgress();
+        Status status = task.getStatus();
+        if (status != null) {
+            statusCounts[status.ordinal()]++;
+        }
+        DueDate dueDate = task.getDueDate();
+        if (dueDate != null && status != Status.DONE && dueDate.getDate().getTime() < now) {
+            overdueCount++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the totals of other to the totals of this
+    private void addAll(ProjectSummary other) {
+        etcHours += other.etcHours;
+        totalProgress += other.totalProgress;
+        taskCount += other.taskCount;
+        projectCount += other.projectCount;
+        overdueCount += other.overdueCount;
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] += other.statusCounts[i];
+        }
+    }
+
+    // Represents the summary of the trees of some projects, computed on a fork/join pool; seen holds the
+    // projects, and the tasks that are part of several projects, that some worker has already counted;
+    // now is the time tasks are overdue as of
+    private static class Aggregation extends RecursiveTask<ProjectSummary> {
+        private final Deque<Todo> pending;
+        private final Set<Identity> seen;
+        private final long now;
+
+        Aggregation(Deque<Todo> pending, Set<Identity> seen, long now) {
+            this.pending = pending;
+            this.seen = seen;
+            this.now = now;
+        }
+
+        @Override
+        protected ProjectSummary compute() {
+            ProjectSummary summary = new ProjectSummary();
+            List<Aggregation> forked = new ArrayList<>();
+            int visited = 0;
+            while (!pending.isEmpty()) {
+                if (visited >= SEQUENTIAL_CUTOFF && pending.size() > 1) {
+                    forked.add(splitOff());
+                    visited = 0;
+                }
+                visit(pending.pop(), summary);
+                visited++;
+            }
+            for (Aggregation aggregation : forked) {
+                summary.addAll(aggregation.join());
+            }
+            return summary;
+        }
+
+        // MODIFIES: this, summary
+        // EFFECTS: counts todo in summary, unless it has been counted already; if it is a project, its
+        //     children are pushed onto pending to be visited in turn
+        private void visit(Todo todo, ProjectSummary summary) {
+            boolean shared = todo instanceof Project || todo.getParentCount() > 1;
+            if (shared && !seen.add(new Identity(todo))) {
+                return;
+            }
+            if (todo instanceof Task) {
+                summary.addTask((Task) todo, now);
+                return;
+            }
+            summary.projectCount++;
+            for (Todo child : ((Project) todo).getChildren()) {
+                pending.push(child);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: moves half of the todos still to visit to a new aggregation, which is forked and returned
+        private Aggregation splitOff() {
+            Deque<Todo> half = new ArrayDeque<>();
+            for (int i = pending.size() / 2; i > 0; i--) {
+                half.push(pending.pollLast());
+            }
+            Aggregation aggregation = new Aggregation(half, seen, now);
+            aggregation.fork();
+            return aggregation;
+        }
+    }
+
+    // Represents a todo as a key that is equal only to the keys of the same todo, since distinct todos may
+    // be equal and a hash set keyed by the todos themselves would count them once
+    private static final class Identity {
+        private final Todo todo;
+
+        Identity(Todo todo) {
+            this.todo = todo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity && ((Identity) o).todo == todo;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(todo);
+        }
+    }
+}
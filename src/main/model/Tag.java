@@ -3,15 +3,19 @@ package model;
 import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
 
 // Represents a tag having a name
+// Tasks are kept by identity, since two distinct tasks may be equal and a task's hash code
+// changes as it is edited. Use TagRegistry.intern to get the tag shared by all tasks.
+// A tag only refers to its tasks weakly, so a task that is no longer used elsewhere (e.g. it was
+// removed from the list of tasks) is dropped from its tags instead of being kept alive by them.
 public class Tag {
     private String name;
-    private Set<Task> tasks;
+    private Map<TaskReference, TaskReference> tasks;
+    private ReferenceQueue<Task> unusedTasks;
 
     // MODIFIES: this
     // EFFECTS: creates a Tag with the given name
@@ -21,7 +25,8 @@ public class Tag {
             throw new EmptyStringException("Cannot construct a tag with no name");
         }
         this.name = name;
-        tasks = new HashSet<>();
+        tasks = new HashMap<>();
+        unusedTasks = new ReferenceQueue<>();
     }
     
     // EFFECTS: returns the name of this tag
@@ -32,9 +37,10 @@ public class Tag {
     // MODIFIES: this
     // EFFECTS: adds task to the collection of tasks in this tag if it is not already exist
     //  throws NullArgumentException if task is null
-    public void addTask(Task task) {
+    public synchronized void addTask(Task task) {
         if (!containsTask(task)) {
-            tasks.add(task);
+            TaskReference reference = new TaskReference(task, unusedTasks);
+            tasks.put(reference, reference);
             task.addTag(this);
         }
     }
@@ -42,9 +48,9 @@ public class Tag {
     // MODIFIES: this
     // EFFECTS: removes task from the collection of tasks in this tag
     //  throws NullArgumentException if task is null
-    public void removeTask(Task task) {
+    public synchronized void removeTask(Task task) {
         if (containsTask(task)) {
-            tasks.remove(task);
+            tasks.remove(new TaskReference(task, null));
             task.removeTag(this);
         }
     }
@@ -52,16 +58,35 @@ public class Tag {
     // EFFECTS: returns true if this tag is assigned to the given task
     //     returns false otherwise
     //  throws NullArgumentException if task is null
-    public boolean containsTask(Task task) {
+    public synchronized boolean containsTask(Task task) {
         if (task == null) {
             throw new NullArgumentException("Invalid argument: task cannot be null");
         }
-        return tasks.contains(task);
+        removeUnusedTasks();
+        return tasks.containsKey(new TaskReference(task, null));
     }
     
-    // EFFECTS: returns an unmodifiable set of tasks that have this tag
-    public Set<Task> getTasks() {
-        return Collections.unmodifiableSet(tasks);
+    // EFFECTS: returns an unmodifiable copy of the set of tasks that have this tag, by identity;
+    //     later changes to this tag are not reflected in it
+    public synchronized Set<Task> getTasks() {
+        removeUnusedTasks();
+        Set<Task> copy = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TaskReference reference : tasks.keySet()) {
+            Task task = reference.get();
+            if (task != null) {
+                copy.add(task);
+            }
+        }
+        return Collections.unmodifiableSet(copy);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the tasks that have been garbage collected
+    private void removeUnusedTasks() {
+        TaskReference reference;
+        while ((reference = (TaskReference) unusedTasks.poll()) != null) {
+            tasks.remove(reference);
+        }
     }
     
     
@@ -87,4 +112,31 @@ public class Tag {
     public int hashCode() {
         return Objects.hash(name);
     }
+
+    // Represents a weak reference to a task that is equal to the references to the same task, by identity
+    private static class TaskReference extends WeakReference<Task> {
+        private final int hash;
+
+        TaskReference(Task task, ReferenceQueue<Task> queue) {
+            super(task, queue);
+            hash = System.identityHashCode(task);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TaskReference)) {
+                return false;
+            }
+            Task task = get();
+            return task != null && task == ((TaskReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Represents the registry of canonical tags: one shared Tag per tag name.
+// Since every tag keeps the set of tasks it is assigned to, the registry doubles as a
+// tag -> tasks index of the tasks still in use. A tag is held only as long as some task (or other code) refers to it,
+// so tags that are no longer used are dropped from the registry.
+public class TagRegistry {
+    private static final Map<String, TagReference> tags = new HashMap<>();
+    private static final ReferenceQueue<Tag> unusedTags = new ReferenceQueue<>();
+
+    // EFFECTS: returns the canonical tag named name, creating it if no such tag is in use
+    //  throws EmptyStringException if name is null or empty
+    public static synchronized Tag intern(String name) {
+        Tag tag = lookup(name);
+        if (tag == null) {
+            tag = new Tag(name);
+            tags.put(name, new TagReference(tag));
+        }
+        return tag;
+    }
+
+    // EFFECTS: returns the canonical tag named name, or null if no such tag is in use
+    public static synchronized Tag lookup(String name) {
+        removeUnusedTags();
+        TagReference reference = tags.get(name);
+        return reference == null ? null : reference.get();
+    }
+
+    // EFFECTS: returns an unmodifiable copy of the set of the tasks tagged with name
+    public static Set<Task> getTasks(String name) {
+        Tag tag = lookup(name);
+        return tag == null ? Collections.emptySet() : tag.getTasks();
+    }
+
+    // EFFECTS: returns the number of tags in use
+    public static synchronized int size() {
+        removeUnusedTags();
+        return tags.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the entries of tags that have been garbage collected
+    private static void removeUnusedTags() {
+        TagReference reference;
+        while ((reference = (TagReference) unusedTags.poll()) != null) {
+            if (tags.get(reference.name) == reference) {
+                tags.remove(reference.name);
+            }
+        }
+    }
+
+    // Represents a weak reference to a canonical tag that remembers the tag's name
+    private static class TagReference extends WeakReference<Tag> {
+        private final String name;
+
+        TagReference(Tag tag) {
+            super(tag, unusedTags);
+            name = tag.getName();
+        }
+    }
+}
@@ -4,9 +4,8 @@ import model.exceptions.EmptyStringException;
 import model.exceptions.InvalidProgressException;
 import model.exceptions.NegativeInputException;
 import model.exceptions.NullArgumentException;
-import parsers.Parser;
-import parsers.TagParser;
-import parsers.exceptions.ParsingException;
+import parsers.DescriptionCache;
+import parsers.ParsedDescription;
 
 import java.util.*;
 
@@ -30,21 +29,20 @@ public class Task extends Todo {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("Cannot construct a task with no description");
         }
-        this.description = description;
         tags = new HashSet<>();
         dueDate = NO_DUE_DATE;
         priority = new Priority(4);
         status = Status.TODO;
-        setDescription(description);
+        parseDescription(description);
     }
 
 
     // MODIFIES: this
-    // EFFECTS: creates a tag with name tagName and adds it to this task
+    // EFFECTS: adds the canonical tag with name tagName to this task
     //  throws EmptyStringException if tagName is null or empty
     // Note: no two tags are to have the same name
     public void addTag(String tagName) {
-        addTag(new Tag(tagName));
+        addTag(TagRegistry.intern(tagName));
     }
     
     // MODIFIES: this
@@ -54,6 +52,7 @@ public class Task extends Todo {
         if (!containsTag(tag)) {
             tags.add(tag);
             tag.addTask(this);
+            markDirty();
         }
     }
     
@@ -61,7 +60,10 @@ public class Task extends Todo {
     // EFFECTS: removes the tag with name tagName from this task
     //  throws EmptyStringException if tagName is empty or null
     public void removeTag(String tagName) {
-        removeTag(new Tag(tagName));
+        Tag tag = findTag(tagName);
+        if (tag != null) {
+            removeTag(tag);
+        }
     }
     
     // MODIFIES: this
@@ -71,6 +73,7 @@ public class Task extends Todo {
         if (containsTag(tag)) {
             tags.remove(tag);
             tag.removeTask(this);
+            markDirty();
         }
     }
     
@@ -88,25 +91,31 @@ public class Task extends Todo {
         if (status == null) {
             throw new NullArgumentException("Illegal argument: status is null");
         }
-        this.status = status;
+        changeKey(() -> this.status = status);
+        markDirty();
     }
 
     // MODIFIES: this
     // EFFECTS:  sets the description of this task
     //     parses the description to extract meta-data (i.e., tags, status, priority and deadline).
+    //     does nothing if description is the current description of this task
     //  throws EmptyStringException if description is null or empty
     public void setDescription(String description) {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("setDescription is called with no description");
         }
-        this.description = description;
-        parseDescription(description);
+        if (description.equals(this.description)) {
+            return;
+        }
+        changeKey(() -> parseDescription(description));
+        markDirty();
     }
 
     // MODIFIES: this
     // EFFECTS: sets the due date of this task
     public void setDueDate(DueDate dueDate) {
-        this.dueDate = dueDate;
+        changeKey(() -> this.dueDate = dueDate);
+        markDirty();
     }
 
     // MODIFIES: this
@@ -116,7 +125,8 @@ public class Task extends Todo {
         if (progress > 100 || progress < 0) {
             throw new InvalidProgressException();
         }
-        this.progress = progress;
+        setTotals(progress, etcHours);
+        markDirty();
     }
 
     // MODIFIES: this
@@ -126,7 +136,8 @@ public class Task extends Todo {
         if (hours < 0) {
             throw new NegativeInputException();
         }
-        this.etcHours = hours;
+        setTotals(progress, hours);
+        markDirty();
     }
 
     // EFFECTS: returns the description of this task
@@ -164,10 +175,7 @@ public class Task extends Todo {
     //     returns false otherwise
     //  throws EmptyStringException if tagName is empty or null
     public boolean containsTag(String tagName) {
-        if (tagName == null || tagName.length() == 0) {
-            throw new EmptyStringException("Tag name cannot be empty or null");
-        }
-        return containsTag(new Tag(tagName));
+        return findTag(tagName) != null;
     }
     
     // EFFECTS: returns true if task contains this tag,
@@ -180,17 +188,28 @@ public class Task extends Todo {
         return tags.contains(tag);
     }
 
+    // EFFECTS: returns the tag of this task named tagName, or null if there is none
+    //  throws EmptyStringException if tagName is empty or null
+    private Tag findTag(String tagName) {
+        if (tagName == null || tagName.length() == 0) {
+            throw new EmptyStringException("Tag name cannot be empty or null");
+        }
+        for (Tag tag : tags) {
+            if (tag.getName().equals(tagName)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
     // REQUIRES: description is non-empty
     // MODIFIES: this
     // EFFECTS: parses the description to extract meta-data (i.e., tags, status, priority and deadline).
+    //     parse results are shared through DescriptionCache
     private void parseDescription(String description) {
-        Parser parser = new TagParser();
-        try {
-            parser.parse(description, this);
-            this.description = parser.getDescription();
-        } catch (ParsingException e) {
-            this.description = description;
-        }
+        ParsedDescription parsed = DescriptionCache.parse(description);
+        this.description = parsed.getDescription();
+        parsed.applyTo(this);
     }
 
 
@@ -242,11 +261,11 @@ public class Task extends Todo {
             return false;
         }
         Task task = (Task) o;
-        return Objects.equals(description, task.description)
+        return Objects.equals(description, task.getDescription())
                 // && Objects.equals(tags, task.tags)
-                && Objects.equals(dueDate, task.dueDate)
-                && Objects.equals(priority, task.priority)
-                && status == task.status;
+                && Objects.equals(dueDate, task.getDueDate())
+                && Objects.equals(priority, task.getPriority())
+                && status == task.getStatus();
     }
     
     @Override
@@ -0,0 +1,78 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Represents a list of tasks that keeps track of whether it, or any of its tasks,
+// has been modified since it was last saved
+public class TaskList extends ArrayList<Task> {
+    private int cleanModCount;
+    private volatile boolean forcedDirty;  // may be set by a background save that failed
+
+    // EFFECTS: constructs an empty task list with no changes
+    public TaskList() {
+        super();
+        cleanModCount = modCount;
+    }
+
+    // EFFECTS: constructs a task list holding tasks, in order; the list itself has no changes
+    public TaskList(Collection<Task> tasks) {
+        super(tasks);
+        cleanModCount = modCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the task at index with task and returns the task that was replaced;
+    //     counts as a structural change of this list
+    @Override
+    public Task set(int index, Task task) {
+        modCount++;
+        return super.set(index, task);
+    }
+
+    // EFFECTS: returns true if tasks were added, removed or replaced since this was last marked clean
+    public boolean isStructurallyModified() {
+        return forcedDirty || modCount != cleanModCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this list as changed since it was last saved, so that the next save writes it
+    public void markDirty() {
+        forcedDirty = true;
+    }
+
+    // EFFECTS: returns true if this list or any of its tasks changed since this was last marked clean
+    public boolean isDirty() {
+        if (isStructurallyModified()) {
+            return true;
+        }
+        for (Task t : this) {
+            if (t.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the tasks that changed since they were last marked clean, in list order
+    public List<Task> getDirtyTasks() {
+        List<Task> dirtyTasks = new ArrayList<>();
+        for (Task t : this) {
+            if (t.isDirty()) {
+                dirtyTasks.add(t);
+            }
+        }
+        return dirtyTasks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this list and all of its tasks as saved
+    public void markClean() {
+        cleanModCount = modCount;
+        forcedDirty = false;
+        for (Task t : this) {
+            t.markClean();
+        }
+    }
+}
@@ -3,11 +3,16 @@ package model;
 import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
 
+import java.util.*;
+
 public abstract class Todo  {
     protected String description;
     protected int progress;
     protected int etcHours;  // Estimated Time To Complete
     protected Priority priority;
+    protected boolean dirty;  // modified since last saved
+    private List<Project> parents;  // projects this is part of, which keep totals over their children
+    private boolean changingKey;  // in the middle of changeKey
 
     // MODIFIES: this
     // EFFECTS: sets the "description" using the given description
@@ -21,6 +26,7 @@ public abstract class Todo  {
             progress = 0;
             etcHours = 0;
             priority = new Priority(4);
+            dirty = true;
         }
     }
 
@@ -29,19 +35,162 @@ public abstract class Todo  {
         return description;
     }
 
-    // EFFECTS: returns the priority of this task
+    // EFFECTS: returns a copy of the priority of this task; changing the copy does not change this task,
+    //     since the projects this is part of index it by priority (use setPriority, setImportant or setUrgent)
     public Priority getPriority() {
-        return priority;
+        return copyOf(priority);
     }
 
     // MODIFIES: this
-    // EFFECTS: sets the priority of this task
+    // EFFECTS: sets the priority of this task to a copy of priority
     //   throws NullArgumentException when priority is null
     public void setPriority(Priority priority) {
         if (priority == null) {
             throw new NullArgumentException("Illegal argument: priority is null");
         }
-        this.priority = priority;
+        Priority copy = copyOf(priority);
+        changeKey(() -> this.priority = copy);
+        markDirty();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether this task is important, keeping whether it is urgent
+    public void setImportant(boolean important) {
+        Priority changed = getPriority();
+        changed.setImportant(important);
+        setPriority(changed);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether this task is urgent, keeping whether it is important
+    public void setUrgent(boolean urgent) {
+        Priority changed = getPriority();
+        changed.setUrgent(urgent);
+        setPriority(changed);
+    }
+
+    // EFFECTS: returns a new priority that is important and urgent exactly when priority is
+    private static Priority copyOf(Priority priority) {
+        Priority copy = new Priority(4);
+        copy.setImportant(priority.isImportant());
+        copy.setUrgent(priority.isUrgent());
+        return copy;
+    }
+
+    // EFFECTS: returns true if this has been modified since it was last marked clean
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this as saved, i.e. not modified since it was last written to storage
+    public void markClean() {
+        dirty = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks this as modified since it was last saved
+    protected void markDirty() {
+        dirty = true;
+    }
+
+    // MODIFIES: this, the projects this is part of and the projects above them
+    // EFFECTS: sets the progress and estimated time to complete of this; if either changed, the projects
+    //     this is part of update their totals, which passes the change on to the projects above them.
+    //     The change is passed on one level at a time rather than recursively, so trees of any depth work.
+    protected void setTotals(int newProgress, int newEtcHours) {
+        if (parents == null) {
+            progress = newProgress;
+            etcHours = newEtcHours;
+            return;
+        }
+        Deque<Project> pending = new ArrayDeque<>();
+        storeTotals(newProgress, newEtcHours, pending);
+        while (!pending.isEmpty()) {
+            pending.pop().storeTotals(pending);
+        }
+    }
+
+    // MODIFIES: this, pending, the projects this is part of
+    // EFFECTS: sets the progress and estimated time to complete of this; if either changed, adds the change
+    //     to the totals of the projects this is part of and pushes them onto pending to be updated in turn
+    void storeTotals(int newProgress, int newEtcHours, Deque<Project> pending) {
+        int progressChange = newProgress - progress;
+        int etcChange = newEtcHours - etcHours;
+        progress = newProgress;
+        etcHours = newEtcHours;
+        if (parents != null && (progressChange != 0 || etcChange != 0)) {
+            for (Project p : parents) {
+                p.childChanged(this, progressChange, etcChange);
+                pending.push(p);
+            }
+        }
+    }
+
+    // MODIFIES: this, the projects this is part of
+    // EFFECTS: runs change, which sets fields of this that equals compares or the priority; the projects
+    //     this is part of, which index their tasks by hash code and priority, then index this again
+    protected void changeKey(Runnable change) {
+        if (parents == null || changingKey) {
+            change.run();
+            return;
+        }
+        int oldHash = hashCode();
+        changingKey = true;
+        try {
+            change.run();
+        } finally {
+            changingKey = false;
+            for (Project p : parents) {
+                p.childKeyChanged(this, oldHash);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this has been added to project
+    void addParent(Project project) {
+        if (parents == null) {
+            parents = new ArrayList<>(1);
+        }
+        parents.add(project);
+    }
+
+    // EFFECTS: returns the number of projects this is part of
+    int getParentCount() {
+        return parents == null ? 0 : parents.size();
+    }
+
+    // EFFECTS: returns true if project is one of the projects this is part of, or one of the projects above
+    //     them; walks up the projects one level at a time, visiting each of them once
+    boolean hasAncestor(Project project) {
+        Deque<Todo> pending = new ArrayDeque<>();
+        Set<Todo> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            Todo todo = pending.pop();
+            for (int i = 0; i < todo.getParentCount(); i++) {
+                Project parent = todo.parents.get(i);
+                if (parent == project) {
+                    return true;
+                }
+                if (seen.add(parent)) {
+                    pending.push(parent);
+                }
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this has been removed from project
+    void removeParent(Project project) {
+        for (int i = 0; parents != null && i < parents.size(); i++) {
+            if (parents.get(i) == project) {
+                parents.remove(i);
+                return;
+            }
+        }
     }
 
     // EFFECTS: return a non-negative integer as the Estimated Time To Complete
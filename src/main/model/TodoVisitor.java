@@ -0,0 +1,12 @@
+package model;
+
+// Represents an operation on the tasks and projects of a tree of projects, called by Project.accept
+// for each of them in turn
+public interface TodoVisitor {
+    // EFFECTS: visits project, found depth levels below the project the walk started at (0 for that project);
+    //     returns true to go on to the children of project, or false to skip them
+    boolean visitProject(Project project, int depth);
+
+    // EFFECTS: visits task, found depth levels below the project the walk started at
+    void visitTask(Task task, int depth);
+}
@@ -0,0 +1,84 @@
+package model;
+
+import java.util.*;
+
+// Represents a walk over the subtree of a project, depth-first, each project before its children and the
+// children in the order they were added, down to a given depth.
+// The walk keeps its own stack of the children still to visit at each level instead of recursing, so it
+// works on trees of any depth. A task or project that is part of several projects is visited only the
+// first time it is reached, so the subtree of a shared project is walked once.
+class TreeWalk implements Iterator<Todo> {
+    private final Deque<Iterator<Todo>> levels = new ArrayDeque<>();
+    private final int maxDepth;
+    private final Set<Todo> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Project opened;  // project returned last, whose children are visited next unless skipped
+    private Todo next;
+    private int depth;  // depth of the todo returned last
+    private int nextDepth;
+
+    // REQUIRES: maxDepth >= 0
+    // EFFECTS: constructs a walk over the todos below root, down to maxDepth levels below it
+    TreeWalk(Project root, int maxDepth) {
+        this.maxDepth = maxDepth;
+        if (maxDepth > 0) {
+            levels.push(root.getChildren().iterator());
+        }
+        seen.add(root);
+    }
+
+    // EFFECTS: returns true if there are todos left to visit
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            findNext();
+        }
+        return next != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next todo to visit
+    @Override
+    public Todo next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Todo todo = next;
+        depth = nextDepth;
+        next = null;
+        opened = todo instanceof Project && depth < maxDepth ? (Project) todo : null;
+        return todo;
+    }
+
+    // EFFECTS: returns the depth of the todo returned last by next, i.e. how many levels it is below the root
+    int depth() {
+        return depth;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: leaves out the children of the project returned last by next
+    void skipChildren() {
+        opened = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds the next todo to visit, if any: the first child of the project returned last, or else
+    //     the next child at the deepest level with children left, skipping todos visited before
+    private void findNext() {
+        if (opened != null) {
+            levels.push(opened.getChildren().iterator());
+            opened = null;
+        }
+        while (next == null && !levels.isEmpty()) {
+            Iterator<Todo> level = levels.peek();
+            if (!level.hasNext()) {
+                levels.pop();
+                continue;
+            }
+            Todo todo = level.next();
+            if (todo.getParentCount() <= 1 || seen.add(todo)) {
+                next = todo;
+                nextDepth = levels.size();
+            }
+        }
+    }
+}
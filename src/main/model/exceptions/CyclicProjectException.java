@@ -0,0 +1,11 @@
+package model.exceptions;
+
+public class CyclicProjectException extends IllegalArgumentException {
+    public CyclicProjectException() {
+        super();
+    }
+
+    public CyclicProjectException(String msg) {
+        super(msg);
+    }
+}
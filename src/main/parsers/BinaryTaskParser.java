@@ -0,0 +1,229 @@
+package parsers;
+
+import model.*;
+import persistence.BinaryTaskWriter;
+import persistence.DueDateCodec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Represents a parser for the binary task format written by BinaryTaskWriter
+public class BinaryTaskParser {
+    private static final int MIN_SCRATCH_SIZE = 256;
+    private byte[] scratch;
+
+    // EFFECTS: returns true if header starts with the magic bytes of the binary task format
+    public static boolean isBinaryFormat(byte[] header) {
+        if (header.length < BinaryTaskWriter.MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < BinaryTaskWriter.MAGIC.length; i++) {
+            if (header[i] != BinaryTaskWriter.MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: input
+    // EFFECTS: parses every record from input (positioned at the start of the file) as a task
+    //     and returns the list of tasks; any record that cannot be parsed is skipped.
+    //     If the header is missing or of an unknown version, or the input is truncated,
+    //     the tasks parsed up to that point are returned.
+    public List<Task> parse(ByteBuffer input) {
+        List<Task> taskList = new ArrayList<>();
+        parse(input, taskList::add, null);
+        return taskList;
+    }
+
+    // MODIFIES: input
+    // EFFECTS: same as parse(input), but returns the tasks together with a diagnostic, giving the index
+    //     and byte offset, for every record skipped; a binary record is only reported as a whole
+    public ParseReport diagnose(ByteBuffer input) {
+        ParseReport report = new ParseReport();
+        parse(input, report::addTask, report);
+        return report;
+    }
+
+    // MODIFIES: input, report
+    // EFFECTS: hands every record of input that can be parsed to taskConsumer, and reports the others
+    //     to report unless it is null
+    private void parse(ByteBuffer input, Consumer<Task> taskConsumer, ParseReport report) {
+        try {
+            String[] dictionary = readHeader(input);
+            int count = readVarInt(input);
+            for (int i = 0; i < count; i++) {
+                int recordStart = input.position();
+                int length = readVarInt(input);
+                int recordEnd = input.position() + length;
+                Task task = parseRecord(input, dictionary);
+                if (task != null) {
+                    taskConsumer.accept(task);
+                } else if (report != null) {
+                    report.addSkipped(i, recordStart, null, "is malformed");
+                }
+                input.position(recordEnd);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // truncated or unsupported input: keep what has been parsed so far
+            if (report != null) {
+                report.setTruncated();
+            }
+        }
+    }
+
+    // MODIFIES: input
+    // EFFECTS: same as parse(input), except that records are not decoded: each task is a LazyTask
+    //     holding a slice of input, and is decoded the first time it is used. A malformed record is
+    //     only found when its task is decoded. input must not be changed afterwards.
+    public List<Task> parseLazily(ByteBuffer input) {
+        List<Task> taskList = new ArrayList<>();
+        try {
+            String[] dictionary = readHeader(input);
+            LazyTask.RecordDecoder decoder =
+                (record, task) -> new BinaryTaskParser().decodeRecord(record.duplicate(), dictionary, task);
+            int count = readVarInt(input);
+            for (int i = 0; i < count; i++) {
+                int length = readVarInt(input);
+                ByteBuffer record = input.slice();
+                record.limit(length);
+                input.position(input.position() + length);
+                taskList.add(new LazyTask(record, decoder));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // truncated or unsupported input: keep what has been read so far
+        }
+        return taskList;
+    }
+
+    // MODIFIES: input
+    // EFFECTS: reads the magic bytes, version and tag dictionary
+    //   throws IllegalArgumentException if the input is not in a supported binary format,
+    //   or BufferUnderflowException if the dictionary is cut off or its size cannot be right
+    private String[] readHeader(ByteBuffer input) {
+        byte[] magic = new byte[BinaryTaskWriter.MAGIC.length];
+        input.get(magic);
+        if (!isBinaryFormat(magic) || input.get() != BinaryTaskWriter.VERSION) {
+            throw new IllegalArgumentException("Not a supported binary task file");
+        }
+        String[] dictionary = new String[readCount(input)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(input);
+        }
+        return dictionary;
+    }
+
+    // MODIFIES: input
+    // EFFECTS: parses the record at the current position of input as a task;
+    //     returns null if the record is malformed
+    private Task parseRecord(ByteBuffer input, String[] dictionary) {
+        try {
+            int flags = input.get();
+            DueDate dueDate = (flags & BinaryTaskWriter.DUE_DATE_FLAG) == 0 ? Task.NO_DUE_DATE
+                    : DueDateCodec.fromEpochMinutes(input.getInt());
+            Task task = new Task(readString(input));
+            task.setStatus(Status.values()[flags & BinaryTaskWriter.STATUS_MASK]);
+            task.setPriority(toPriority(flags));
+            task.setDueDate(dueDate);
+            for (String name : readTagNames(input, dictionary)) {
+                task.addTag(name);
+            }
+            return task;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // MODIFIES: record, task
+    // EFFECTS: decodes record, positioned at the flags of a record, into task; returns false,
+    //     leaving task unchanged, if the record is malformed
+    private boolean decodeRecord(ByteBuffer record, String[] dictionary, Task task) {
+        try {
+            int flags = record.get();
+            DueDate dueDate = (flags & BinaryTaskWriter.DUE_DATE_FLAG) == 0 ? Task.NO_DUE_DATE
+                    : DueDateCodec.fromEpochMinutes(record.getInt());
+            String description = readString(record);
+            String[] tagNames = readTagNames(record, dictionary);
+            Status status = Status.values()[flags & BinaryTaskWriter.STATUS_MASK];
+            task.setDescription(description);
+            task.setStatus(status);
+            task.setPriority(toPriority(flags));
+            task.setDueDate(dueDate);
+            for (String name : tagNames) {
+                task.addTag(name);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // MODIFIES: input
+    // EFFECTS: reads the tag count and the dictionary index of each tag, and returns the tag names
+    //   throws IndexOutOfBoundsException if an index is not in the dictionary,
+    //   or BufferUnderflowException if there are fewer indices than the count
+    private String[] readTagNames(ByteBuffer input, String[] dictionary) {
+        String[] names = new String[readCount(input)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = dictionary[readVarInt(input)];
+        }
+        return names;
+    }
+
+    // EFFECTS: returns the priority packed in flags
+    private Priority toPriority(int flags) {
+        Priority priority = new Priority(4);
+        priority.setImportant((flags & BinaryTaskWriter.IMPORTANT_FLAG) != 0);
+        priority.setUrgent((flags & BinaryTaskWriter.URGENT_FLAG) != 0);
+        return priority;
+    }
+
+    // MODIFIES: this, input
+    // EFFECTS: reads a varint length followed by that many UTF-8 bytes; bytes are decoded straight
+    //     from a heap buffer, or copied through a reused scratch array from a direct or mapped buffer
+    private String readString(ByteBuffer input) {
+        int length = readCount(input);
+        if (input.hasArray()) {
+            String s = new String(input.array(), input.arrayOffset() + input.position(), length,
+                    StandardCharsets.UTF_8);
+            input.position(input.position() + length);
+            return s;
+        }
+        if (scratch == null || scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch == null ? MIN_SCRATCH_SIZE : scratch.length * 2)];
+        }
+        input.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: input
+    // EFFECTS: reads a varint count of items that each take up at least one byte of the rest of input
+    //   throws BufferUnderflowException if the count is negative or larger than the number of bytes left,
+    //   so that a corrupt count fails like a truncated file instead of allocating for it
+    private int readCount(ByteBuffer input) {
+        int count = readVarInt(input);
+        if (count < 0 || count > input.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    // MODIFIES: input
+    // EFFECTS: reads a varint written by BinaryTaskWriter
+    //   throws IllegalArgumentException if the varint is longer than 5 bytes
+    private int readVarInt(ByteBuffer input) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = input.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,130 @@
+package parsers;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+import parsers.exceptions.ParsingException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a bounded, least-recently-used cache of parsed task descriptions, keyed by description.
+// Descriptions without the "##" meta-data separator carry no meta-data and are never parsed;
+// the others are parsed by DescriptionLexer once and then reused, e.g. when loading many tasks
+// with repetitive descriptions.
+public class DescriptionCache {
+    public static final int CAPACITY = 1024;
+    private static final String METADATA_SEPARATOR = "##";
+    private static final long HALF_DAY_MILLIS = 12 * 60 * 60 * 1000L;
+
+    private static final Map<String, ParsedDescription> cache =
+            new LinkedHashMap<String, ParsedDescription>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ParsedDescription> eldest) {
+                    return size() > CAPACITY;
+                }
+            };
+    private static long hits = 0;
+    private static long misses = 0;
+
+    // EFFECTS: returns the result of parsing description
+    public static ParsedDescription parse(String description) {
+        if (!description.contains(METADATA_SEPARATOR)) {
+            return new ParsedDescription(description);
+        }
+        ParsedDescription parsed = lookup(description);
+        if (parsed == null) {
+            parsed = parseWithLexer(description);
+            store(description, parsed);
+        }
+        return parsed;
+    }
+
+    // EFFECTS: returns the number of parses answered from the cache
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    // EFFECTS: returns the number of parses that had to run the lexer
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every cached description and resets the hit and miss counts
+    public static synchronized void clear() {
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the cached result of parsing description, or null if there is none
+    private static synchronized ParsedDescription lookup(String description) {
+        ParsedDescription parsed = cache.get(description);
+        if (parsed == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return parsed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: caches parsed as the result of parsing description, evicting the least recently used entry if full
+    private static synchronized void store(String description, ParsedDescription parsed) {
+        cache.put(description, parsed);
+    }
+
+    // EFFECTS: parses description with DescriptionLexer and returns what it applied to the task
+    private static ParsedDescription parseWithLexer(String description) {
+        Parser parser = new DescriptionLexer();
+        ProbeTask probe = new ProbeTask();
+        try {
+            parser.parse(description, probe);
+        } catch (ParsingException e) {
+            return new ParsedDescription(description);
+        }
+        return probe.toParsedDescription(parser.getDescription());
+    }
+
+    // Represents a task that records the meta-data a parser applies to it, instead of applying it
+    private static class ProbeTask extends Task {
+        private List<String> tagNames;
+        private Status status;
+
+        ProbeTask() {
+            super("probe");
+            tagNames = new ArrayList<>();
+        }
+
+        @Override
+        public void addTag(String tagName) {
+            tagNames.add(tagName);
+        }
+
+        @Override
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        // EFFECTS: returns the recorded meta-data, with description as the parsed description
+        ParsedDescription toParsedDescription(String description) {
+            return new ParsedDescription(description, Collections.unmodifiableList(tagNames),
+                    getPriority().isImportant(), getPriority().isUrgent(), status, dueInDays());
+        }
+
+        // EFFECTS: returns the number of days after today the due date set by the parser falls on,
+        //     or ParsedDescription.NO_DUE_DATE if no due date was set
+        private int dueInDays() {
+            if (getDueDate() == null) {
+                return ParsedDescription.NO_DUE_DATE;
+            }
+            long fromToday = getDueDate().getDate().getTime() - new DueDate().getDate().getTime();
+            return (int) Math.max(0, Math.floorDiv(fromToday + HALF_DAY_MILLIS, 2 * HALF_DAY_MILLIS));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package parsers;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+import parsers.exceptions.ParsingException;
+
+import java.util.Arrays;
+
+// Represents a single-pass lexer for the meta-data in a task description, a drop-in replacement
+// for TagParser. A description has the form "text ## token; token; ...":
+//     "important" and "urgent" set the priority
+//     the first of "today" and "tomorrow" sets the due date
+//     the first of "to do", "up next", "in progress" and "done" sets the status
+//     every other token becomes a tag
+// Tokens are trimmed and compared ignoring case; empty and repeated tokens are skipped,
+// and anything after a second "##" is ignored. The only string allocated per token is the
+// name of a tag.
+public class DescriptionLexer extends Parser {
+    private static final String SEPARATOR = "##";
+    private static final String[] PRIORITY_KEYWORDS = {"important", "urgent"};
+    private static final String[] DUE_DATE_KEYWORDS = {"today", "tomorrow"};
+    private static final String[] STATUS_KEYWORDS = {"to do", "up next", "in progress", "done"};
+    private static final Status[] STATUSES = {Status.TODO, Status.UP_NEXT, Status.IN_PROGRESS, Status.DONE};
+
+    private String description;
+    private String input;
+    private int[] tokenStarts = new int[8];
+    private int[] tokenEnds = new int[8];
+    private int tokenCount;
+    private boolean dueDateSet;
+    private boolean statusSet;
+
+    // MODIFIES: this, task
+    // EFFECTS: applies the meta-data in input to task; the description without meta-data is
+    //     available from getDescription()
+    //  throws ParsingException if input has no meta-data
+    @Override
+    public void parse(String input, Task task) throws ParsingException {
+        int separator = input.indexOf(SEPARATOR);
+        if (separator < 0 || !hasTokenSection(input, separator + SEPARATOR.length())) {
+            throw new ParsingException("Input does not contain tags!");
+        }
+        this.input = input;
+        description = input.substring(0, separator);
+        tokenCount = 0;
+        dueDateSet = false;
+        statusSet = false;
+        int end = input.indexOf(SEPARATOR, separator + SEPARATOR.length());
+        lex(separator + SEPARATOR.length(), end < 0 ? input.length() : end, task);
+    }
+
+    // EFFECTS: returns the description without meta-data, as of the last successful parse
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    // EFFECTS: returns false if everything from start on is a (possibly empty) run of separators,
+    //     i.e. there is no token section at all
+    private static boolean hasTokenSection(String input, int start) {
+        int rest = input.length() - start;
+        if (rest % SEPARATOR.length() != 0) {
+            return true;
+        }
+        for (int i = start; i < input.length(); i++) {
+            if (input.charAt(i) != '#') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: splits input[start, end) at ';' and applies each trimmed, non-empty, new token to task
+    private void lex(int start, int end, Task task) {
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || input.charAt(i) == ';') {
+                int s = tokenStart;
+                int e = i;
+                while (s < e && input.charAt(s) <= ' ') {
+                    s++;
+                }
+                while (e > s && input.charAt(e - 1) <= ' ') {
+                    e--;
+                }
+                if (s < e && !isRepeated(s, e)) {
+                    addToken(s, e);
+                    applyToken(s, e, task);
+                }
+                tokenStart = i + 1;
+            }
+        }
+    }
+
+    // MODIFIES: task, this
+    // EFFECTS: applies the token input[start, end) to task
+    private void applyToken(int start, int end, Task task) {
+        if (applyPriority(start, end, task)) {
+            return;
+        }
+        if (!dueDateSet && applyDueDate(start, end, task)) {
+            dueDateSet = true;
+        } else if (!statusSet && applyStatus(start, end, task)) {
+            statusSet = true;
+        } else {
+            task.addTag(input.substring(start, end));
+        }
+    }
+
+    // MODIFIES: task
+    // EFFECTS: if input[start, end) is a priority keyword, applies it to task and returns true
+    private boolean applyPriority(int start, int end, Task task) {
+        int keyword = match(start, end, PRIORITY_KEYWORDS);
+        if (keyword == 0) {
+            task.setImportant(true);
+        } else if (keyword == 1) {
+            task.setUrgent(true);
+        }
+        return keyword >= 0;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: if input[start, end) is a due date keyword, applies it to task and returns true
+    private boolean applyDueDate(int start, int end, Task task) {
+        int keyword = match(start, end, DUE_DATE_KEYWORDS);
+        if (keyword >= 0) {
+            task.setDueDate(new DueDate());
+            if (keyword == 1) {
+                task.getDueDate().postponeOneDay();
+            }
+        }
+        return keyword >= 0;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: if input[start, end) is a status keyword, applies it to task and returns true
+    private boolean applyStatus(int start, int end, Task task) {
+        int keyword = match(start, end, STATUS_KEYWORDS);
+        if (keyword >= 0) {
+            task.setStatus(STATUSES[keyword]);
+        }
+        return keyword >= 0;
+    }
+
+    // EFFECTS: returns the index of the keyword equal to input[start, end) ignoring case, or -1 if none is
+    private int match(int start, int end, String[] keywords) {
+        for (int i = 0; i < keywords.length; i++) {
+            String keyword = keywords[i];
+            if (keyword.length() == end - start && input.regionMatches(true, start, keyword, 0, keyword.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns true if a token equal to input[start, end) ignoring case was seen before
+    private boolean isRepeated(int start, int end) {
+        for (int i = 0; i < tokenCount; i++) {
+            int length = tokenEnds[i] - tokenStarts[i];
+            if (length == end - start && input.regionMatches(true, start, input, tokenStarts[i], length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the token input[start, end) as seen
+    private void addToken(int start, int end) {
+        if (tokenCount == tokenStarts.length) {
+            tokenStarts = Arrays.copyOf(tokenStarts, tokenCount * 2);
+            tokenEnds = Arrays.copyOf(tokenEnds, tokenCount * 2);
+        }
+        tokenStarts[tokenCount] = start;
+        tokenEnds[tokenCount] = end;
+        tokenCount++;
+    }
+}
@@ -0,0 +1,120 @@
+package parsers;
+
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents the result of a diagnostic parse: the tasks that were parsed, a diagnostic for every
+// record that was skipped, and counters to check a load for data loss
+// (every record is either parsed or skipped, unless the input broke off before its end).
+public class ParseReport {
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    private boolean truncated;
+
+    // Represents why a single record was skipped: its index among the records of the input,
+    // the byte offset where it starts, the field that failed (null if the record as a whole is
+    // malformed) and a short reason
+    public static class Diagnostic {
+        private final int index;
+        private final long offset;
+        private final String field;
+        private final String reason;
+
+        // EFFECTS: constructs a diagnostic for the record at index, starting at byte offset
+        public Diagnostic(int index, long offset, String field, String reason) {
+            this.index = index;
+            this.offset = offset;
+            this.field = field;
+            this.reason = reason;
+        }
+
+        // EFFECTS: returns the index of the record among the records of the input
+        public int getIndex() {
+            return index;
+        }
+
+        // EFFECTS: returns the byte offset of the start of the record in the input
+        public long getOffset() {
+            return offset;
+        }
+
+        // EFFECTS: returns the name of the field that failed, or null if the record is malformed as a whole
+        public String getField() {
+            return field;
+        }
+
+        // EFFECTS: returns why the record was skipped
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "record " + index + " at byte " + offset + ": " + (field == null ? "" : field + " ") + reason;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records task as parsed
+    public void addTask(Task task) {
+        tasks.add(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the record at index, starting at byte offset, was skipped because of field
+    //     (null if the record is malformed as a whole) for the given reason
+    public void addSkipped(int index, long offset, String field, String reason) {
+        diagnostics.add(new Diagnostic(index, offset, field, reason));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the input broke off before its end, so that any records after the last
+    //     one recorded are lost
+    public void setTruncated() {
+        truncated = true;
+    }
+
+    // EFFECTS: returns the tasks parsed, in input order
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    // EFFECTS: returns a diagnostic for every record skipped, in input order
+    public List<Diagnostic> getDiagnostics() {
+        return Collections.unmodifiableList(diagnostics);
+    }
+
+    // EFFECTS: returns the number of records seen, parsed or skipped
+    public int getRecordCount() {
+        return tasks.size() + diagnostics.size();
+    }
+
+    // EFFECTS: returns the number of records parsed as tasks
+    public int getParsedCount() {
+        return tasks.size();
+    }
+
+    // EFFECTS: returns the number of records skipped
+    public int getSkippedCount() {
+        return diagnostics.size();
+    }
+
+    // EFFECTS: returns true if the input broke off before its end
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    // EFFECTS: returns true if every record in the input was parsed as a task
+    public boolean isLossless() {
+        return !truncated && diagnostics.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return getRecordCount() + " records: " + getParsedCount() + " parsed, " + getSkippedCount() + " skipped"
+                + (truncated ? ", input truncated" : "");
+    }
+}
@@ -0,0 +1,69 @@
+package parsers;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+
+import java.util.Collections;
+import java.util.List;
+
+// Represents the result of parsing a task description: the description shown for the task and
+// the meta-data (tags, status, priority and deadline) that parsing applies to the task.
+// A due date is kept relative to the day it is applied on, since "today" changes.
+public class ParsedDescription {
+    public static final int NO_DUE_DATE = -1;
+
+    private final String description;
+    private final List<String> tagNames;
+    private final boolean important;
+    private final boolean urgent;
+    private final Status status;
+    private final int dueInDays;
+
+    // EFFECTS: constructs the result of parsing a description that carries no meta-data
+    public ParsedDescription(String description) {
+        this(description, Collections.emptyList(), false, false, null, NO_DUE_DATE);
+    }
+
+    // REQUIRES: dueInDays is NO_DUE_DATE or >= 0
+    // EFFECTS: constructs the result of parsing a description; status is null if the description
+    //     does not set a status, dueInDays is NO_DUE_DATE if it does not set a due date
+    public ParsedDescription(String description, List<String> tagNames, boolean important, boolean urgent,
+                             Status status, int dueInDays) {
+        this.description = description;
+        this.tagNames = tagNames;
+        this.important = important;
+        this.urgent = urgent;
+        this.status = status;
+        this.dueInDays = dueInDays;
+    }
+
+    // EFFECTS: returns the description without meta-data
+    public String getDescription() {
+        return description;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: applies the meta-data to task, the same way parsing the description would
+    public void applyTo(Task task) {
+        if (important) {
+            task.setImportant(true);
+        }
+        if (urgent) {
+            task.setUrgent(true);
+        }
+        if (status != null) {
+            task.setStatus(status);
+        }
+        if (dueInDays != NO_DUE_DATE) {
+            DueDate dueDate = new DueDate();
+            for (int i = 0; i < dueInDays; i++) {
+                dueDate.postponeOneDay();
+            }
+            task.setDueDate(dueDate);
+        }
+        for (String name : tagNames) {
+            task.addTag(name);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package parsers;
+
+import model.LazyProject;
+import model.Priority;
+import model.Project;
+import model.Todo;
+import model.exceptions.EmptyStringException;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+// Represents a parser for trees of projects written by ProjectTreeWriter.
+// Only the entries at the top of the input are read: each project becomes a LazyProject that keeps the
+// bytes of its subtree, skipped by counting line breaks, and reads them with this parser when it is first
+// expanded; each task becomes a LazyTask. Opening a file therefore costs one scan for line breaks plus
+// one small decode per top-level entry, however many projects are nested below them.
+// A malformed project line is skipped and counted, and the lines below it are read as if they were at
+// its level, so its tasks and sub-projects are kept; a malformed task line decodes as an unreadable task.
+public class ProjectTreeParser {
+    private static final byte[] PROJECT_KEY = "\"project\"".getBytes(StandardCharsets.UTF_8);
+
+    private int skipped;
+
+    // EFFECTS: passes each task and project at the top of bytes, the UTF-8 lines of trees of projects,
+    //     to childConsumer in order; their subtrees are only read when they are expanded
+    public void parse(ByteBuffer bytes, Consumer<Todo> childConsumer) {
+        ByteBuffer input = bytes.duplicate();
+        while (input.hasRemaining()) {
+            int start = input.position();
+            int end = lineEnd(input, start);
+            input.position(Math.min(end + 1, input.limit()));
+            if (!isBlank(input, start, end)) {
+                Todo child = isProjectLine(input, start, end) ? readProject(input, start, end)
+                        : TaskJsonDecoder.lazyTask(slice(input, start, end));
+                if (child != null) {
+                    childConsumer.accept(child);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of malformed project lines skipped so far
+    public int getSkippedCount() {
+        return skipped;
+    }
+
+    // EFFECTS: decodes the project whose line in input spans [start, end) and moves input past its subtree;
+    //     returns null, counting the line as skipped, if the line is malformed, leaving input at the start of
+    //     the subtree so that it is read at the level of the line
+    private Project readProject(ByteBuffer input, int start, int end) {
+        int subtreeStart = input.position();
+        try {
+            JSONObject header = new JSONObject(StandardCharsets.UTF_8.decode(slice(input, start, end)).toString());
+            JSONObject priorityJson = header.getJSONObject("priority");
+            Priority priority = new Priority(4);
+            priority.setImportant(priorityJson.getBoolean("important"));
+            priority.setUrgent(priorityJson.getBoolean("urgent"));
+            int lines = skipLines(input, Math.max(0, header.getInt("lines")));
+            ByteBuffer records = slice(input, subtreeStart, input.position());
+            int progress = Math.max(0, Math.min(header.optInt("progress", 0), 100));
+            return new LazyProject(header.getString("project"), priority, progress,
+                    Math.max(0, header.optInt("etc", 0)), records, lines, ProjectTreeParser::parseSubtree);
+        } catch (JSONException | EmptyStringException e) {
+            input.position(subtreeStart);
+            skipped++;
+            return null;
+        }
+    }
+
+    // EFFECTS: passes the children in records, the subtree of a LazyProject, to childConsumer in order
+    private static void parseSubtree(ByteBuffer records, Consumer<Todo> childConsumer) {
+        new ProjectTreeParser().parse(records, childConsumer);
+    }
+
+    // MODIFIES: input
+    // EFFECTS: moves input past the next count lines, or to its end if it has fewer; returns the number
+    //     of lines skipped
+    private static int skipLines(ByteBuffer input, int count) {
+        int skippedLines = 0;
+        while (skippedLines < count && input.hasRemaining()) {
+            input.position(Math.min(lineEnd(input, input.position()) + 1, input.limit()));
+            skippedLines++;
+        }
+        return skippedLines;
+    }
+
+    // EFFECTS: returns the index of the line break that ends the line starting at start,
+    //     or the limit of input if the line is unterminated
+    private static int lineEnd(ByteBuffer input, int start) {
+        for (int i = start; i < input.limit(); i++) {
+            if (input.get(i) == '\n') {
+                return i;
+            }
+        }
+        return input.limit();
+    }
+
+    // EFFECTS: returns true if the line in input spanning [start, end) starts with the "project" key
+    private static boolean isProjectLine(ByteBuffer input, int start, int end) {
+        int i = skipWhitespace(input, start, end);
+        if (i == end || input.get(i) != '{') {
+            return false;
+        }
+        i = skipWhitespace(input, i + 1, end);
+        if (end - i < PROJECT_KEY.length) {
+            return false;
+        }
+        for (int j = 0; j < PROJECT_KEY.length; j++) {
+            if (input.get(i + j) != PROJECT_KEY[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if the bytes of input in [start, end) are all whitespace
+    private static boolean isBlank(ByteBuffer input, int start, int end) {
+        return skipWhitespace(input, start, end) == end;
+    }
+
+    // EFFECTS: returns the index of the first byte of input in [start, end) that is not whitespace, or end
+    private static int skipWhitespace(ByteBuffer input, int start, int end) {
+        int i = start;
+        while (i < end && (input.get(i) == ' ' || input.get(i) == '\t' || input.get(i) == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    // EFFECTS: returns the bytes of input in [start, end) as a buffer of their own
+    private static ByteBuffer slice(ByteBuffer input, int start, int end) {
+        ByteBuffer slice = input.duplicate();
+        slice.limit(end).position(start);
+        return slice.slice();
+    }
+}
@@ -0,0 +1,229 @@
+package parsers;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+import persistence.DueDateCodec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Represents a decoder for tasks in CSV (RFC 4180), one task per row, e.g. as exported by another to-do tool.
+// The first row names the columns, ignoring case; only "description" is required:
+//     description         the description, which may carry meta-data after "##" as usual
+//     tags                tag names separated by ';'
+//     due-date            yyyy-MM-dd HH:mm, or yyyy-MM-dd for a task due at 11:59 PM
+//     important, urgent   true/false, yes/no or 1/0
+//     status              TODO, UP_NEXT, IN_PROGRESS or DONE
+// Other columns are ignored. Like TaskJsonDecoder, a row that cannot be decoded as a task is skipped
+// and counted; blank rows are ignored.
+public class TaskCsvDecoder implements Iterator<Task> {
+    private static final String[] COLUMNS = {"description", "tags", "due-date", "important", "urgent", "status"};
+    private static final int DESCRIPTION = 0;
+    private static final int TAGS = 1;
+    private static final int DUE_DATE = 2;
+    private static final int IMPORTANT = 3;
+    private static final int URGENT = 4;
+    private static final int STATUS = 5;
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+    private static final String DATE_ONLY = "yyyy-MM-dd";
+
+    private final Reader reader;
+    private final int[] columnIndex = new int[COLUMNS.length];
+    private final List<String> row = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private final TaskParser taskParser = new TaskParser();
+    private Task nextTask;
+    private boolean finished;
+    private int records;
+    private int skipped;
+
+    // EFFECTS: constructs a decoder that reads CSV from reader, starting with its header row
+    //   throws IOException if the header cannot be read
+    //   throws IllegalArgumentException if the header has no description column
+    public TaskCsvDecoder(Reader reader) throws IOException {
+        this.reader = reader;
+        readRow();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndex[i] = -1;
+            for (int j = 0; j < row.size(); j++) {
+                if (row.get(j).replace(BYTE_ORDER_MARK, "").trim().equalsIgnoreCase(COLUMNS[i])) {
+                    columnIndex[i] = j;
+                }
+            }
+        }
+        if (columnIndex[DESCRIPTION] < 0) {
+            throw new IllegalArgumentException("CSV header has no description column");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if there is another task that can be decoded from the input
+    @Override
+    public boolean hasNext() {
+        while (nextTask == null && !finished) {
+            try {
+                finished = !readRow();
+            } catch (IOException e) {
+                finished = true;
+            }
+            if (!finished && !isBlankRow()) {
+                records++;
+                nextTask = toTask();
+            }
+        }
+        return nextTask != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next task decoded from the input
+    //   throws NoSuchElementException if there are no more tasks
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Task task = nextTask;
+        nextTask = null;
+        return task;
+    }
+
+    // EFFECTS: returns the number of rows seen so far, not counting the header and blank rows
+    public int getRecordCount() {
+        return records;
+    }
+
+    // EFFECTS: returns the number of rows skipped so far because they are not valid tasks
+    public int getSkippedCount() {
+        return skipped;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the task in the current row, or null (counting the row as skipped) if it is not valid
+    private Task toTask() {
+        Status status = column(STATUS).isEmpty() ? Status.TODO
+                : taskParser.toStatus(column(STATUS).toUpperCase().replace(' ', '_'));
+        if (column(DESCRIPTION).isEmpty() || status == null) {
+            skipped++;
+            return null;
+        }
+        DueDate dueDate;
+        try {
+            dueDate = dueDate();
+        } catch (DateTimeParseException e) {
+            skipped++;
+            return null;
+        }
+        Task task = new Task(column(DESCRIPTION));
+        applyColumns(task);
+        if (dueDate != Task.NO_DUE_DATE) {
+            task.setDueDate(dueDate);
+        }
+        if (!column(STATUS).isEmpty()) {
+            task.setStatus(status);
+        }
+        return task;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: adds the tags and priority in the current row to task
+    private void applyColumns(Task task) {
+        for (String name : column(TAGS).split(";")) {
+            if (!name.trim().isEmpty()) {
+                task.addTag(name.trim());
+            }
+        }
+        if (isTrue(column(IMPORTANT))) {
+            task.setImportant(true);
+        }
+        if (isTrue(column(URGENT))) {
+            task.setUrgent(true);
+        }
+    }
+
+    // EFFECTS: returns the due date in the due-date column of the current row, or NO_DUE_DATE if it is empty
+    //   throws DateTimeParseException if the due date is malformed
+    private DueDate dueDate() {
+        String value = column(DUE_DATE);
+        if (value.isEmpty()) {
+            return Task.NO_DUE_DATE;
+        }
+        LocalDateTime due = value.length() == DATE_ONLY.length()
+                ? LocalDate.parse(value).atTime(23, 59) : LocalDateTime.parse(value.replace(' ', 'T'));
+        return DueDateCodec.fromFields(due.getYear(), due.getMonthValue() - 1, due.getDayOfMonth(),
+                due.getHour(), due.getMinute());
+    }
+
+    // EFFECTS: returns true if value is true, yes or 1, ignoring case
+    private static boolean isTrue(String value) {
+        return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("yes") || value.equals("1");
+    }
+
+    // EFFECTS: returns the trimmed value of the given column in the current row, or "" if there is none
+    private String column(int column) {
+        int index = columnIndex[column];
+        return index < 0 || index >= row.size() ? "" : row.get(index).trim();
+    }
+
+    // EFFECTS: returns true if the current row is blank
+    private boolean isBlankRow() {
+        return row.size() == 1 && row.get(0).trim().isEmpty();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next row into row; returns false if the input has ended
+    private boolean readRow() throws IOException {
+        row.clear();
+        int c = reader.read();
+        if (c == -1) {
+            return false;
+        }
+        c = readField(c);
+        row.add(field.toString());
+        while (c == ',') {
+            c = readField(reader.read());
+            row.add(field.toString());
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the field starting with character first into field, unquoting it; returns the character
+    //     that ends it: ',', '\n' or -1 at the end of the input
+    private int readField(int first) throws IOException {
+        field.setLength(0);
+        int c = first == '"' ? readQuoted() : first;
+        while (c != ',' && c != '\n' && c != -1) {
+            if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a quoted value, whose opening quote has been read, into field;
+    //     a doubled quote stands for a quote. Returns the character after the closing quote.
+    private int readQuoted() throws IOException {
+        int c = reader.read();
+        while (c != -1) {
+            if (c == '"') {
+                c = reader.read();
+                if (c != '"') {
+                    return c;
+                }
+            }
+            field.append((char) c);
+            c = reader.read();
+        }
+        return c;
+    }
+}
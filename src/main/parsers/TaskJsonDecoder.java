@@ -0,0 +1,925 @@
+package parsers;
+
+import model.DueDate;
+import model.LazyTask;
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.json.JSONException;
+import persistence.DueDateCodec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Represents a decoder for a JSONArray of tasks, as written by TaskJsonWriter or Jsonifier,
+// that reads characters straight from a Reader instead of building org.json objects.
+// Keys are recognized by their characters and fields are decoded directly into a task;
+// keys may come in any order and unknown keys are skipped. Either due date schema version is read, as are
+// the optional "progress" and "etc" fields written for the tasks of project trees.
+// Like TaskStreamParser and TaskParser, any element that cannot be decoded as a task is skipped;
+// if the input itself is malformed, decoding stops at that point.
+// In line mode the input is NDJSON instead: one task object per line, with no enclosing array.
+// A malformed line is skipped and counted, and decoding resumes on the next line.
+// The diagnose methods also report every record skipped, with its index, byte offset and failing field;
+// malformed input is signalled without filling in a stack trace, so bad records stay cheap.
+public class TaskJsonDecoder implements Iterator<Task> {
+    public static final LazyTask.RecordDecoder RECORD_DECODER = TaskJsonDecoder::decodeRecord;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int DESCRIPTION = 1;
+    private static final int TAGS = 2;
+    private static final int DUE_DATE = 4;
+    private static final int PRIORITY = 8;
+    private static final int STATUS = 16;
+    private static final int PROGRESS = 32;
+    private static final int ETC = 64;
+    private static final int ALL_FIELDS = DESCRIPTION | TAGS | DUE_DATE | PRIORITY | STATUS;
+    private static final String[] DATE_FIELDS = {"year", "month", "day", "hour", "minute"};
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private final StringBuilder text = new StringBuilder();
+    private final TaskParser taskParser = new TaskParser();
+    private Task nextTask;
+    private boolean started;
+    private boolean finished;
+    private final boolean lines;
+    private int line = 1;
+    private int elementLine;
+    private int corruptLines;
+    private int recordIndex = -1;
+    private boolean inRecord;
+    private int currentField;
+    private int skipped;
+    private ParseReport report;
+    private long recordOffset;
+    private long markOffset;
+    private int markPosition;
+
+    private int fieldsRead;
+    private int failedField;
+    private String description;
+    private final List<String> tagNames = new ArrayList<>();
+    private boolean important;
+    private boolean urgent;
+    private boolean hasDueDate;
+    private DueDate dueDate;
+    private Status status;
+    private int progress;
+    private int etcHours;
+
+    // EFFECTS: constructs a decoder that reads a JSONArray of tasks from reader
+    public TaskJsonDecoder(Reader reader) {
+        this(reader, false, BUFFER_SIZE);
+    }
+
+    // EFFECTS: constructs a decoder that reads a JSONArray of tasks from reader, or NDJSON if lines,
+    //     through a buffer of bufferSize characters
+    private TaskJsonDecoder(Reader reader, boolean lines, int bufferSize) {
+        this.reader = reader;
+        this.lines = lines;
+        buffer = new char[bufferSize];
+    }
+
+    // EFFECTS: returns a decoder that reads NDJSON from reader, i.e. one task object per line
+    public static TaskJsonDecoder forLines(Reader reader) {
+        return new TaskJsonDecoder(reader, true, BUFFER_SIZE);
+    }
+
+    // MODIFIES: task
+    // EFFECTS: decodes record, the UTF-8 bytes of a single task object, into task; returns false,
+    //     leaving task unchanged, if record is not a valid task. Used to decode a LazyTask.
+    public static boolean decodeRecord(ByteBuffer record, Task task) {
+        String json = StandardCharsets.UTF_8.decode(record.duplicate()).toString();
+        TaskJsonDecoder decoder = new TaskJsonDecoder(new StringReader(json), true, Math.max(1, json.length()));
+        try {
+            return decoder.peekNonWhitespace() == '{' && decoder.readInto(task);
+        } catch (IOException | JSONException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: returns a LazyTask that is decoded from record, the UTF-8 bytes of a single task object
+    public static LazyTask lazyTask(ByteBuffer record) {
+        return new LazyTask(record, RECORD_DECODER);
+    }
+
+    // EFFECTS: decodes every task in the JSONArray read from reader, and reports every element skipped
+    public static ParseReport diagnose(Reader reader) {
+        return new TaskJsonDecoder(reader, false, BUFFER_SIZE).diagnose();
+    }
+
+    // EFFECTS: decodes every task in the NDJSON read from reader, and reports every line skipped
+    public static ParseReport diagnoseLines(Reader reader) {
+        return new TaskJsonDecoder(reader, true, BUFFER_SIZE).diagnose();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes every remaining task, reporting each record skipped
+    private ParseReport diagnose() {
+        report = new ParseReport();
+        forEachRemaining(report::addTask);
+        return report;
+    }
+
+    // EFFECTS: returns the number of lines skipped so far because they are not well-formed JSON;
+    //     always 0 unless this decoder is in line mode
+    public int getCorruptLines() {
+        return corruptLines;
+    }
+
+    // EFFECTS: returns the number of records (elements or lines) seen so far, decoded or skipped
+    public int getRecordCount() {
+        return recordIndex + 1;
+    }
+
+    // EFFECTS: returns the number of records skipped so far, because they are malformed or not valid tasks
+    public int getSkippedCount() {
+        return skipped;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if there is another task that can be decoded from the input
+    @Override
+    public boolean hasNext() {
+        if (nextTask == null && !finished) {
+            advance();
+        }
+        return nextTask != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next task decoded from the input
+    //   throws NoSuchElementException if there are no more tasks
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Task task = nextTask;
+        nextTask = null;
+        return task;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes elements until one is a valid task or the array ends
+    private void advance() {
+        try {
+            while (nextTask == null && !finished) {
+                if (lines) {
+                    advanceLine();
+                } else if (atEndOfArray()) {
+                    finished = true;
+                } else {
+                    startRecord();
+                    nextTask = readElement();
+                    inRecord = false;
+                }
+            }
+        } catch (IOException | JSONException e) {
+            skip(currentField, "is malformed: " + e.getMessage());
+            finished = true;
+            if (report != null) {
+                report.setTruncated();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the next record at the current position
+    private void startRecord() throws IOException {
+        recordIndex++;
+        inRecord = true;
+        currentField = 0;
+        if (report != null) {
+            skipWhitespace();
+            recordOffset = byteOffset();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts the current record, if any, as skipped because of field (0 for the record as a whole)
+    //     and reports it with reason
+    private void skip(int field, String reason) {
+        if (!inRecord) {
+            return;
+        }
+        inRecord = false;
+        skipped++;
+        if (report != null) {
+            report.addSkipped(recordIndex, recordOffset, fieldName(field), reason);
+        }
+    }
+
+    // EFFECTS: returns the name of the task field, or null if field is 0
+    private static String fieldName(int field) {
+        switch (field) {
+            case DESCRIPTION: return "description";
+            case TAGS: return "tags";
+            case DUE_DATE: return "due-date";
+            case PRIORITY: return "priority";
+            case STATUS: return "status";
+            case PROGRESS: return "progress";
+            case ETC: return "etc";
+            default: return null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the next non-blank line, if any; a line that is not a well-formed object is
+    //     skipped and counted
+    private void advanceLine() throws IOException {
+        skipBlankLines();
+        if (peek() == -1) {
+            finished = true;
+            return;
+        }
+        elementLine = line;
+        startRecord();
+        try {
+            if (peek() != '{') {
+                throw new SyntaxError("Expected a task object");
+            }
+            Task task = readElement();
+            expectEndOfLine();
+            nextTask = task;
+            inRecord = false;
+        } catch (JSONException e) {
+            corruptLines++;
+            skip(currentField, "is malformed: " + e.getMessage());
+            skipRestOfLine();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the rest of the line, which must be blank, including its line break
+    //   throws JSONException if there is anything else on the line
+    private void expectEndOfLine() throws IOException {
+        currentField = 0;
+        skipWhitespace();
+        int c = read();
+        if (c != '\n' && c != -1) {
+            throw new SyntaxError("Expected the end of the line");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the rest of the line the current element started on, including its line break;
+    //     nothing is consumed if the line break has been consumed already
+    private void skipRestOfLine() throws IOException {
+        int c = line == elementLine ? read() : -1;
+        while (c != '\n' && c != -1) {
+            c = read();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace, including line breaks
+    private void skipBlankLines() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            read();
+            c = peek();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the '[' before the first element or the ',' before any other element,
+    //     and returns true if the array ends there instead
+    //   throws JSONException if neither is found
+    private boolean atEndOfArray() throws IOException {
+        int c = readNonWhitespace();
+        if (!started) {
+            started = true;
+            if (c != '[') {
+                throw new SyntaxError("A JSONArray text must start with '['");
+            }
+            if (peekNonWhitespace() != ']') {
+                return false;
+            }
+            c = read();
+        }
+        if (c == ']') {
+            return true;
+        } else if (c != ',') {
+            throw new SyntaxError("Expected ',' or ']'");
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the next element; returns it as a task, or null if it is not a valid task
+    private Task readElement() throws IOException {
+        if (peekNonWhitespace() != '{') {
+            skipValue();
+            skip(0, "is not an object");
+            return null;
+        }
+        readFields();
+        return buildTask();
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: decodes the next object into task; returns false, leaving task unchanged,
+    //     if it is not a valid task
+    private boolean readInto(Task task) throws IOException {
+        readFields();
+        if (failedField != 0 || (fieldsRead & ALL_FIELDS) != ALL_FIELDS) {
+            return false;
+        }
+        try {
+            task.setDescription(description);
+        } catch (RuntimeException e) {
+            return false;
+        }
+        applyFields(task);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the fields of the next object, which must be a task object
+    private void readFields() throws IOException {
+        fieldsRead = 0;
+        failedField = 0;
+        tagNames.clear();
+        important = false;
+        urgent = false;
+        hasDueDate = false;
+        progress = 0;
+        etcHours = 0;
+        readObject(this::readTaskField);
+        currentField = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the value of the task field named by key
+    private void readTaskField(StringBuilder key) throws IOException {
+        int field = taskField(key);
+        fieldsRead |= field;
+        currentField = field;
+        if (field == DESCRIPTION) {
+            description = readStringOrNull();
+            failIf(description == null || description.isEmpty(), DESCRIPTION);
+        } else if (field == TAGS) {
+            readTags();
+        } else if (field == DUE_DATE) {
+            readDueDate();
+        } else if (field == PRIORITY) {
+            readPriority();
+        } else if (field == STATUS) {
+            String name = readStringOrNull();
+            status = name == null ? null : taskParser.toStatus(name);
+            failIf(status == null, STATUS);
+        } else if (field == PROGRESS || field == ETC) {
+            readTotal(field);
+        } else {
+            skipValue();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the value of the optional progress or etc field, a whole number of percent
+    //     (0 to 100) or hours (at least 0) respectively
+    private void readTotal(int field) throws IOException {
+        Number value = readNumberOrNull();
+        long max = field == PROGRESS ? 100 : Integer.MAX_VALUE;
+        boolean valid = value instanceof Long && value.longValue() >= 0 && value.longValue() <= max;
+        failIf(!valid, field);
+        if (!valid) {
+            return;
+        }
+        if (field == PROGRESS) {
+            progress = value.intValue();
+        } else {
+            etcHours = value.intValue();
+        }
+    }
+
+    // EFFECTS: returns the task field named key, or 0 if key is not a task field
+    private static int taskField(StringBuilder key) {
+        switch (key.length() == 0 ? 0 : key.charAt(0)) {
+            case 'd':
+                if (matches(key, "description")) {
+                    return DESCRIPTION;
+                }
+                return matches(key, "due-date") ? DUE_DATE : 0;
+            case 't':
+                return matches(key, "tags") ? TAGS : 0;
+            case 'p':
+                if (matches(key, "priority")) {
+                    return PRIORITY;
+                }
+                return matches(key, "progress") ? PROGRESS : 0;
+            case 'e':
+                return matches(key, "etc") ? ETC : 0;
+            case 's':
+                return matches(key, "status") ? STATUS : 0;
+            default:
+                return 0;
+        }
+    }
+
+    // EFFECTS: returns true if key consists of exactly the characters of name
+    private static boolean matches(StringBuilder key, String name) {
+        if (key.length() != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (key.charAt(i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records field as the first field that makes the task invalid, if failed and there is none yet
+    private void failIf(boolean failed, int field) {
+        if (failed && failedField == 0) {
+            failedField = field;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes an array of {"name": ...} tag objects; any other value makes the task invalid
+    private void readTags() throws IOException {
+        if (peekNonWhitespace() != '[') {
+            failIf(true, TAGS);
+            skipValue();
+            return;
+        }
+        read();
+        if (peekNonWhitespace() == ']') {
+            read();
+            return;
+        }
+        do {
+            readTag();
+        } while (readSeparator(']'));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a single tag object; anything else makes the task invalid
+    private void readTag() throws IOException {
+        if (peekNonWhitespace() != '{') {
+            failIf(true, TAGS);
+            skipValue();
+            return;
+        }
+        int tagsBefore = tagNames.size();
+        readObject(key -> {
+            if (matches(key, "name")) {
+                String name = readStringOrNull();
+                tagNames.add(name);
+                failIf(name == null || name.isEmpty(), TAGS);
+            } else {
+                skipValue();
+            }
+        });
+        failIf(tagNames.size() == tagsBefore, TAGS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the due date as epoch minutes, a year/month/day/hour/minute object, or null;
+    //     a malformed due date is ignored, as TaskParser does
+    private void readDueDate() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '{') {
+            readLegacyDueDate();
+        } else if (isNumberStart(c)) {
+            Number minutes = readNumberOrNull();
+            hasDueDate = minutes != null;
+            dueDate = hasDueDate ? DueDateCodec.fromEpochMinutes(minutes.longValue()) : Task.NO_DUE_DATE;
+        } else if (c == 'n') {
+            readLiteral();
+            hasDueDate = matches(text, "null");
+            dueDate = Task.NO_DUE_DATE;
+        } else {
+            skipValue();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a year/month/day/hour/minute due date object; ignores it if a field is missing
+    private void readLegacyDueDate() throws IOException {
+        int[] fields = new int[DATE_FIELDS.length];
+        int[] fieldsSeen = {0};
+        readObject(key -> {
+            int index = indexOf(key, DATE_FIELDS);
+            if (index < 0 || !isNumberStart(peekNonWhitespace())) {
+                skipValue();
+                return;
+            }
+            Number value = readNumberOrNull();
+            if (value != null) {
+                fields[index] = value.intValue();
+                fieldsSeen[0] |= 1 << index;
+            }
+        });
+        hasDueDate = fieldsSeen[0] == (1 << DATE_FIELDS.length) - 1;
+        if (hasDueDate) {
+            dueDate = DueDateCodec.fromFields(fields[0], fields[1], fields[2], fields[3], fields[4]);
+        }
+    }
+
+    // EFFECTS: returns the index of the name in names that key consists of, or -1 if there is none
+    private static int indexOf(StringBuilder key, String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            if (matches(key, names[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns true if c can start a JSON number
+    private static boolean isNumberStart(int c) {
+        return c == '-' || (c >= '0' && c <= '9');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the priority object; a missing or non-boolean flag makes the task invalid
+    private void readPriority() throws IOException {
+        if (peekNonWhitespace() != '{') {
+            failIf(true, PRIORITY);
+            skipValue();
+            return;
+        }
+        int[] flagsSeen = {0};
+        readObject(key -> {
+            if (matches(key, "important")) {
+                Boolean value = readBooleanOrNull();
+                important = value != null && value;
+                flagsSeen[0] |= value == null ? 0 : 1;
+            } else if (matches(key, "urgent")) {
+                Boolean value = readBooleanOrNull();
+                urgent = value != null && value;
+                flagsSeen[0] |= value == null ? 0 : 2;
+            } else {
+                skipValue();
+            }
+        });
+        failIf(flagsSeen[0] != 3, PRIORITY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the task decoded from the fields read, or null (skipping the record) if it is not
+    //     a valid task
+    private Task buildTask() {
+        int missing = ALL_FIELDS & ~fieldsRead;
+        if (missing != 0) {
+            skip(Integer.lowestOneBit(missing), "is missing");
+            return null;
+        } else if (failedField != 0) {
+            skip(failedField, "is invalid");
+            return null;
+        }
+        try {
+            Task task = new Task(description);
+            applyFields(task);
+            return task;
+        } catch (RuntimeException e) {
+            skip(0, "is not a valid task");
+            return null;
+        }
+    }
+
+    // REQUIRES: the fields read are a valid task
+    // MODIFIES: task
+    // EFFECTS: sets the priority, tags, due date, status, progress and estimated time to complete of task
+    //     to the fields read
+    private void applyFields(Task task) {
+        Priority priority = new Priority(4);
+        priority.setImportant(important);
+        priority.setUrgent(urgent);
+        task.setPriority(priority);
+        for (String name : tagNames) {
+            task.addTag(name);
+        }
+        if (hasDueDate) {
+            task.setDueDate(dueDate);
+        }
+        task.setStatus(status);
+        task.setProgress(progress);
+        task.setEstimatedTimeToComplete(etcHours);
+    }
+
+    // Represents malformed input; no stack trace is filled in, since malformed records are expected
+    // and are handled by skipping them
+    private static class SyntaxError extends JSONException {
+        SyntaxError(String message) {
+            super(message);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    // Represents the decoder of the value of an object member, given the member's key;
+    // the key is only valid until the value is read
+    private interface MemberReader {
+        void read(StringBuilder key) throws IOException;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes an object, passing each key to memberReader to decode its value
+    //   throws JSONException if the object is malformed
+    private void readObject(MemberReader memberReader) throws IOException {
+        expect('{');
+        if (peekNonWhitespace() == '}') {
+            read();
+            return;
+        }
+        do {
+            expectNonWhitespace('"');
+            readStringBody();
+            expectNonWhitespace(':');
+            memberReader.read(text);
+        } while (readSeparator('}'));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a ',' and returns true, or consumes close and returns false
+    //   throws JSONException if neither comes next
+    private boolean readSeparator(char close) throws IOException {
+        int c = readNonWhitespace();
+        if (c == ',') {
+            return true;
+        } else if (c == close) {
+            return false;
+        }
+        throw new SyntaxError("Expected ',' or '" + close + "'");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a string, or returns null (and skips the value) if the value is not a string
+    private String readStringOrNull() throws IOException {
+        if (peekNonWhitespace() != '"') {
+            skipValue();
+            return null;
+        }
+        read();
+        readStringBody();
+        return text.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes true or false, including the strings "true" and "false" in any case as
+    //     org.json does; returns null (and skips the value) for anything else
+    private Boolean readBooleanOrNull() throws IOException {
+        if (peekNonWhitespace() != '"') {
+            return readLiteral();
+        }
+        String s = readStringOrNull();
+        if ("true".equalsIgnoreCase(s)) {
+            return Boolean.TRUE;
+        }
+        return "false".equalsIgnoreCase(s) ? Boolean.FALSE : null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a literal or number into text; returns TRUE or FALSE for true and false, null otherwise
+    private Boolean readLiteral() throws IOException {
+        skipWhitespace();
+        text.setLength(0);
+        int c = peek();
+        while (c != -1 && c != ',' && c != '}' && c != ']' && c > ' ') {
+            text.append((char) read());
+            c = peek();
+        }
+        if (text.length() == 0) {
+            throw new SyntaxError("Expected a value");
+        }
+        if (matches(text, "true")) {
+            return Boolean.TRUE;
+        }
+        return matches(text, "false") ? Boolean.FALSE : null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a number; returns null (having skipped the value) if the value is not a JSON number
+    private Number readNumberOrNull() throws IOException {
+        readLiteral();
+        if (!isNumber(text)) {
+            return null;
+        }
+        int sign = text.charAt(0) == '-' ? 1 : 0;
+        if (skipDigits(text, sign) == text.length() && text.length() - sign <= MAX_LONG_DIGITS) {
+            return Long.parseLong(text.toString());
+        }
+        return Double.parseDouble(text.toString());
+    }
+
+    // EFFECTS: returns true if s is a JSON number, i.e. -?digits(.digits)?([eE][+-]?digits)?
+    private static boolean isNumber(CharSequence s) {
+        int start = s.length() > 0 && s.charAt(0) == '-' ? 1 : 0;
+        int i = skipDigits(s, start);
+        if (i == start) {
+            return false;
+        }
+        if (i < s.length() && s.charAt(i) == '.') {
+            int fractionEnd = skipDigits(s, i + 1);
+            if (fractionEnd == i + 1) {
+                return false;
+            }
+            i = fractionEnd;
+        }
+        if (i < s.length() && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            int exponentStart = i + 1;
+            if (exponentStart < s.length() && (s.charAt(exponentStart) == '+' || s.charAt(exponentStart) == '-')) {
+                exponentStart++;
+            }
+            i = skipDigits(s, exponentStart);
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        return i == s.length();
+    }
+
+    // EFFECTS: returns the index of the first character at or after start in s that is not a digit
+    private static int skipDigits(CharSequence s, int start) {
+        int i = start;
+        while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a string whose opening quote has been consumed into text, unescaping it
+    //   throws JSONException if the string is not terminated or contains an invalid escape
+    private void readStringBody() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                throw new SyntaxError("Unterminated string");
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the character after a backslash and returns the character it stands for
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b': return '\b';
+            case 't': return '\t';
+            case 'n': return '\n';
+            case 'f': return '\f';
+            case 'r': return '\r';
+            case 'u': return readUnicodeEscape();
+            case '"':
+            case '\\':
+            case '/': return (char) c;
+            default: throw new SyntaxError("Illegal escape");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the four hex digits of a \\u escape and returns the character
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw new SyntaxError("Illegal escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips the next value, of any type
+    private void skipValue() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '"') {
+            read();
+            readStringBody();
+        } else if (c == '{') {
+            readObject(key -> skipValue());
+        } else if (c == '[') {
+            read();
+            if (peekNonWhitespace() == ']') {
+                read();
+                return;
+            }
+            do {
+                skipValue();
+            } while (readSeparator(']'));
+        } else {
+            readLiteral();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes c, which must come next
+    //   throws JSONException otherwise
+    private void expect(char c) throws IOException {
+        if (read() != c) {
+            throw new SyntaxError("Expected '" + c + "'");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace, then consumes c, which must come next
+    //   throws JSONException otherwise
+    private void expectNonWhitespace(char c) throws IOException {
+        skipWhitespace();
+        expect(c);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without consuming it, or -1 at the end
+    private int peekNonWhitespace() throws IOException {
+        skipWhitespace();
+        return peek();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and consumes and returns the next character, or -1 at the end
+    private int readNonWhitespace() throws IOException {
+        skipWhitespace();
+        return read();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips any whitespace; in line mode, stops at a line break
+    private void skipWhitespace() throws IOException {
+        int c = peek();
+        while (c == ' ' || (c == '\n' && !lines) || c == '\r' || c == '\t') {
+            read();
+            c = peek();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character without consuming it, or -1 at the end of the input
+    private int peek() throws IOException {
+        if (position == limit) {
+            if (report != null) {
+                markOffset += utf8Length(buffer, markPosition, limit);
+                markPosition = 0;
+            }
+            limit = Math.max(0, reader.read(buffer, 0, buffer.length));
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the offset in bytes, encoded as UTF-8, of the current position in the input;
+    //     only tracked while reporting
+    private long byteOffset() {
+        markOffset += utf8Length(buffer, markPosition, position);
+        markPosition = position;
+        return markOffset;
+    }
+
+    // EFFECTS: returns the number of bytes chars[start, end) take up in UTF-8
+    private static int utf8Length(char[] chars, int start, int end) {
+        int length = end - start;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c >= 0x80) {
+                length += c < 0x800 || Character.isSurrogate(c) ? 1 : 2;
+            }
+        }
+        return length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, or -1 at the end of the input
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return c;
+    }
+}
@@ -4,41 +4,111 @@ import model.*;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
+import persistence.DueDateCodec;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 // Represents Task parser
 public class TaskParser {
-    
+    public static final int PARALLEL_CUTOFF = 512;
+
     // EFFECTS: iterates over every JSONObject in the JSONArray represented by the input
     // string and parses it as a task; each parsed task is added to the list of tasks.
     // Any task that cannot be parsed due to malformed JSON data is not added to the
-    // list of tasks.
-    // Note: input is a string representation of a JSONArray
+    // list of tasks. If the array itself is malformed, the tasks before the point where
+    // it breaks are still returned.
+    // Note: input is a string representation of a JSONArray, or NDJSON (one task per line)
     public List<Task> parse(String input) {
+        JSONArray taskArray;
+        try {
+            taskArray = new JSONArray(input);
+        } catch (JSONException e) {
+            return salvage(input);
+        }
 
         List<Task> taskList = new ArrayList<>();
-        JSONArray taskArray = new JSONArray(input);
-
         for (Object object : taskArray) {
-            JSONObject taskJson = (JSONObject) object;
-            if (taskJson.has("description") && taskJson.has("tags") && taskJson.has("due-date")
-                    && taskJson.has("status") && taskJson.has("priority")) {
-                try {
-                    String description = taskJson.getString("description");
-                    Task myTask = new Task(description);
-                    attemptUpdateTask(myTask, taskJson);
-                    taskList.add(myTask);
-                } catch (Exception e) { //if task description is empty
-                    //do nothing with this array object, move on to next
-                }
+            Task myTask = parseElement(object);
+            if (myTask != null) {
+                taskList.add(myTask);
             }
         }
         return taskList;
     }
 
+    // EFFECTS: parses element, a top-level element of the array, as a task and returns it; returns null
+    // if element is not a JSONObject or cannot be parsed due to missing or malformed JSON data
+    private Task parseElement(Object element) {
+        return element instanceof JSONObject ? parseTask((JSONObject) element) : null;
+    }
+
+    // EFFECTS: same as parse(input), but returns the tasks together with a diagnostic (record index,
+    // byte offset and failing field) for every task that is dropped, and counters to check for data loss
+    // Note: input is a string representation of a JSONArray, or NDJSON (one task per line)
+    public ParseReport parseWithDiagnostics(String input) {
+        Reader reader = new StringReader(input);
+        return isNdjson(input) ? TaskJsonDecoder.diagnoseLines(reader) : TaskJsonDecoder.diagnose(reader);
+    }
+
+    // EFFECTS: returns true if input is NDJSON rather than a JSONArray, i.e. it starts with an object
+    private static boolean isNdjson(String input) {
+        return input.trim().startsWith("{");
+    }
+
+    // EFFECTS: returns the tasks that can be decoded from input, which is not a well-formed JSONArray:
+    // the tasks before the point where the array breaks, or every well-formed line of NDJSON
+    private List<Task> salvage(String input) {
+        Reader reader = new StringReader(input);
+        TaskJsonDecoder decoder = isNdjson(input)
+                ? TaskJsonDecoder.forLines(reader) : new TaskJsonDecoder(reader);
+        List<Task> taskList = new ArrayList<>();
+        decoder.forEachRemaining(taskList::add);
+        return taskList;
+    }
+
+    // EFFECTS: same as parse(input), but the input is split at the boundaries of the top-level
+    // elements of the array and the elements are parsed on the common fork/join pool;
+    // the returned tasks are in the same order as in the input.
+    // Each element is parsed exactly as parse(input) parses it; if the array itself is malformed
+    // (or input is NDJSON), input is handed to parse(input) instead, so the result is always the same.
+    // Note: input is a string representation of a JSONArray, or NDJSON (one task per line)
+    public List<Task> parseParallel(String input) {
+        return parseParallel(input, ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: same as parseParallel(input), using the given fork/join pool
+    public List<Task> parseParallel(String input, ForkJoinPool pool) {
+        try {
+            List<int[]> elements = splitElements(input);
+            return pool.invoke(new ParseChunk(input, elements, 0, elements.size()));
+        } catch (JSONException e) {
+            return parse(input);
+        }
+    }
+
+    // EFFECTS: parses taskJson as a task and returns it; returns null if the task
+    // cannot be parsed due to missing or malformed JSON data
+    public Task parseTask(JSONObject taskJson) {
+        if (taskJson.has("description") && taskJson.has("tags") && taskJson.has("due-date")
+                && taskJson.has("status") && taskJson.has("priority")) {
+            try {
+                String description = taskJson.getString("description");
+                Task myTask = new Task(description);
+                attemptUpdateTask(myTask, taskJson);
+                return myTask;
+            } catch (Exception e) { //if task description is empty
+                //do nothing with this array object, move on to next
+            }
+        }
+        return null;
+    }
+
 
     private void attemptUpdateTask(Task myTask, JSONObject taskJson) {
         attemptPriorityUpdate(myTask, taskJson);
@@ -55,7 +125,8 @@ public class TaskParser {
         }
     }
 
-    private Priority toPriority(JSONObject priorityObj) {
+    // EFFECTS: returns the priority represented by priorityObj
+    public Priority toPriority(JSONObject priorityObj) {
         Boolean importance = priorityObj.getBoolean("important");
         Boolean urgency = priorityObj.getBoolean("urgent");
         Priority myPriority = new Priority(4);
@@ -79,18 +150,15 @@ public class TaskParser {
 
     private void attemptDueDateUpdate(Task myTask, JSONObject taskJson) {
         try {
-            JSONObject dueDateObject = taskJson.getJSONObject("due-date");
-            DueDate myDueDate = toDueDate(dueDateObject);
-            myTask.setDueDate(myDueDate);
+            myTask.setDueDate(toDueDate(taskJson.get("due-date")));
         } catch (JSONException e) {
-            //if empty, use default
+            //if malformed, use default
         }
     }
 
 
 
 
-
     private void attemptTagUpdate(Task myTask, JSONObject taskJson) {
         if (taskJson.has("tags")) {
             JSONArray tags = taskJson.getJSONArray("tags");
@@ -107,33 +175,39 @@ public class TaskParser {
         for (Object object : tagsToParse) {
             JSONObject taskJson = (JSONObject) object;
             String name = taskJson.getString("name");
-            myTags.add(new Tag(name));
+            myTags.add(TagRegistry.intern(name));
         }
         return myTags;
 
     }
 
-    private DueDate toDueDate(JSONObject dateJson) {
-        int myYear = dateJson.getInt("year");
-        int myMonth = dateJson.getInt("month");
-        int myDay = dateJson.getInt("day");
-        int myHour = dateJson.getInt("hour");
-        int myMins = dateJson.getInt("minute");
-        Calendar myCal = Calendar.getInstance();
-        myCal.set(Calendar.YEAR, myYear);
-        myCal.set(Calendar.MONTH, myMonth);
-        myCal.set(Calendar.DAY_OF_MONTH, myDay);
-        myCal.set(Calendar.HOUR_OF_DAY, myHour);
-        myCal.set(Calendar.MINUTE, myMins);
-        DueDate myDueDate = new DueDate(myCal.getTime());
-        return myDueDate;
+    // EFFECTS: returns the due date represented by dueDateJson in either schema version:
+    //     a number of epoch minutes, or a year/month/day/hour/minute object;
+    //     returns Task.NO_DUE_DATE if dueDateJson is JSON null
+    //  throws JSONException if dueDateJson is neither
+    public DueDate toDueDate(Object dueDateJson) {
+        if (JSONObject.NULL.equals(dueDateJson)) {
+            return Task.NO_DUE_DATE;
+        } else if (dueDateJson instanceof Number) {
+            return DueDateCodec.fromEpochMinutes(((Number) dueDateJson).longValue());
+        } else if (dueDateJson instanceof JSONObject) {
+            return toDueDate((JSONObject) dueDateJson);
+        }
+        throw new JSONException("Not a due date: " + dueDateJson);
+    }
+
+    // EFFECTS: returns the due date represented by a year/month/day/hour/minute object
+    public DueDate toDueDate(JSONObject dateJson) {
+        return DueDateCodec.fromFields(dateJson.getInt("year"), dateJson.getInt("month"),
+                dateJson.getInt("day"), dateJson.getInt("hour"), dateJson.getInt("minute"));
     }
 
 
 
 
 
-    private Status toStatus(String statusObj) {
+    // EFFECTS: returns the status named by statusObj, or null if there is no such status
+    public Status toStatus(String statusObj) {
         if (statusObj.equals("IN_PROGRESS")) {
             return Status.IN_PROGRESS;
         } else if (statusObj.equals("UP_NEXT")) {
@@ -146,7 +220,120 @@ public class TaskParser {
         return null;
     }
 
+    // EFFECTS: returns the [start, end) ranges of the top-level elements of the JSONArray in input
+    //   throws JSONException if input does not start with '[' or the array is not terminated
+    private List<int[]> splitElements(String input) {
+        int i = skipWhitespace(input, 0);
+        if (i == input.length() || input.charAt(i) != '[') {
+            throw new JSONException("A JSONArray text must start with '['");
+        }
+        List<int[]> elements = new ArrayList<>();
+        int depth = 0;
+        int start = i + 1;
+        for (i = start; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                i = skipString(input, i);
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && depth > 0) {
+                depth--;
+            } else if (depth == 0 && (c == ',' || c == ']')) {
+                addElement(input, start, i, elements, c == ']');
+                start = i + 1;
+                if (c == ']') {
+                    return elements;
+                }
+            }
+        }
+        throw new JSONException("Expected a ',' or ']'");
+    }
+
+    // MODIFIES: elements
+    // EFFECTS: adds the range [start, end) of input to elements, trimmed of whitespace;
+    //     an empty range is only allowed for an empty array or a trailing comma
+    private void addElement(String input, int start, int end, List<int[]> elements, boolean last) {
+        int from = skipWhitespace(input, start);
+        int to = end;
+        while (to > from && Character.isWhitespace(input.charAt(to - 1))) {
+            to--;
+        }
+        if (from < to) {
+            elements.add(new int[] {from, to});
+        } else if (!last) {
+            throw new JSONException("Missing value at " + start);
+        }
+    }
+
+    // EFFECTS: returns the index of the first non-whitespace character in input at or after i
+    private int skipWhitespace(String input, int i) {
+        while (i < input.length() && Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // REQUIRES: input.charAt(quote) == '"'
+    // EFFECTS: returns the index of the quote that closes the string starting at quote
+    //   throws JSONException if the string is not terminated
+    private int skipString(String input, int quote) {
+        for (int i = quote + 1; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        throw new JSONException("Unterminated string");
+    }
 
+    // Parses a contiguous run of top-level array elements, splitting it in half on the
+    // fork/join pool until it is no longer than PARALLEL_CUTOFF elements
+    private class ParseChunk extends RecursiveTask<List<Task>> {
+        private final String input;
+        private final List<int[]> elements;
+        private final int from;
+        private final int to;
 
+        ParseChunk(String input, List<int[]> elements, int from, int to) {
+            this.input = input;
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
 
+        @Override
+        protected List<Task> compute() {
+            if (to - from <= PARALLEL_CUTOFF) {
+                return parseSequentially();
+            }
+            int middle = (from + to) >>> 1;
+            ParseChunk left = new ParseChunk(input, elements, from, middle);
+            left.fork();
+            List<Task> right = new ParseChunk(input, elements, middle, to).compute();
+            List<Task> taskList = left.join();
+            taskList.addAll(right);
+            return taskList;
+        }
+
+        // EFFECTS: parses every element in this chunk exactly as parse(input) does
+        //   throws JSONException if an element is not a single well-formed JSON value
+        private List<Task> parseSequentially() {
+            List<Task> taskList = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int[] range = elements.get(i);
+                JSONTokener tokener = new JSONTokener(input.substring(range[0], range[1]));
+                Object object = tokener.nextValue();
+                if (tokener.nextClean() != 0) {
+                    throw tokener.syntaxError("Expected a ',' or ']'");
+                }
+                Task myTask = parseElement(object);
+                if (myTask != null) {
+                    taskList.add(myTask);
+                }
+            }
+            return taskList;
+        }
+    }
 }
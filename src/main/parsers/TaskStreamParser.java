@@ -0,0 +1,113 @@
+package parsers;
+
+import model.Task;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Represents a streaming Task parser; reads a JSONArray of tasks one element at a time
+// so that only a single task object is held in memory while parsing
+public class TaskStreamParser implements Iterator<Task> {
+    private JSONTokener tokener;
+    private TaskParser taskParser;
+    private Task nextTask;
+    private int elementsRead;
+    private boolean started;
+    private boolean finished;
+
+    // EFFECTS: constructs a parser that reads a JSONArray of tasks from reader
+    public TaskStreamParser(Reader reader) {
+        tokener = new JSONTokener(reader);
+        taskParser = new TaskParser();
+        nextTask = null;
+        elementsRead = 0;
+        started = false;
+        finished = false;
+    }
+
+    // EFFECTS: constructs a parser that reads a UTF-8 encoded JSONArray of tasks from channel
+    public TaskStreamParser(ReadableByteChannel channel) {
+        this(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if there is another task that can be parsed from the input
+    //     Any element that cannot be parsed as a task is skipped; if the input itself
+    //     is malformed, parsing stops at that point.
+    @Override
+    public boolean hasNext() {
+        if (nextTask == null && !finished) {
+            advance();
+        }
+        return nextTask != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next task parsed from the input
+    //   throws NoSuchElementException if there are no more tasks
+    @Override
+    public Task next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Task task = nextTask;
+        nextTask = null;
+        return task;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads elements until a task is parsed or the end of the array is reached
+    private void advance() {
+        try {
+            if (!started) {
+                readArrayStart();
+            }
+            while (nextTask == null && !finished) {
+                nextTask = readElement();
+            }
+        } catch (JSONException e) {
+            finished = true;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the opening bracket of the array
+    //   throws JSONException if the input does not start with '['
+    private void readArrayStart() {
+        started = true;
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("A JSONArray text must start with '['");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next array element and returns it parsed as a task;
+    //     returns null if the element is not a valid task or the array has ended
+    //   throws JSONException if the input is malformed
+    private Task readElement() {
+        char c = tokener.nextClean();
+        if (elementsRead > 0 && c == ',') {
+            c = tokener.nextClean();
+        } else if (elementsRead > 0 && c != ']' && c != 0) {
+            throw tokener.syntaxError("Expected a ',' or ']'");
+        }
+        if (c == ']' || c == 0) {
+            finished = true;
+            return null;
+        }
+        tokener.back();
+        Object value = tokener.nextValue();
+        elementsRead++;
+        if (value instanceof JSONObject) {
+            return taskParser.parseTask((JSONObject) value);
+        }
+        return null;
+    }
+}
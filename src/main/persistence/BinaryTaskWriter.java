@@ -0,0 +1,114 @@
+package persistence;
+
+import model.DueDate;
+import model.Priority;
+import model.Tag;
+import model.Task;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes tasks in the compact binary task format:
+//     magic "PTDB", version byte
+//     tag dictionary: varint count, then each tag name as varint length + UTF-8 bytes
+//     varint task count, then one length-prefixed record per task:
+//         varint record length
+//         flags byte: bits 0-1 status ordinal, bit 2 important, bit 3 urgent, bit 4 has due date
+//         due date as big-endian int epoch minutes (only if bit 4 is set)
+//         description as varint length + UTF-8 bytes
+//         varint tag count, then one varint tag dictionary index per tag
+public class BinaryTaskWriter {
+    public static final byte[] MAGIC = {'P', 'T', 'D', 'B'};
+    public static final int VERSION = 1;
+    public static final int STATUS_MASK = 0x03;
+    public static final int IMPORTANT_FLAG = 0x04;
+    public static final int URGENT_FLAG = 0x08;
+    public static final int DUE_DATE_FLAG = 0x10;
+
+    // EFFECTS: writes tasks to out in the binary task format
+    public static void write(List<Task> tasks, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out);
+        Map<String, Integer> dictionary = buildDictionary(tasks);
+        buffered.write(MAGIC);
+        buffered.write(VERSION);
+        writeVarInt(dictionary.size(), buffered);
+        for (String name : dictionary.keySet()) {
+            writeString(name, buffered);
+        }
+        writeVarInt(tasks.size(), buffered);
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        for (Task t : tasks) {
+            record.reset();
+            writeRecord(t, dictionary, record);
+            writeVarInt(record.size(), buffered);
+            record.writeTo(buffered);
+        }
+        buffered.flush();
+    }
+
+    // EFFECTS: returns every distinct tag name in tasks, mapped to its index in the dictionary
+    private static Map<String, Integer> buildDictionary(List<Task> tasks) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Task t : tasks) {
+            for (Tag tag : t.getTags()) {
+                dictionary.putIfAbsent(tag.getName(), dictionary.size());
+            }
+        }
+        return dictionary;
+    }
+
+    // EFFECTS: writes the record of task to out, referring to tags by their dictionary index
+    private static void writeRecord(Task task, Map<String, Integer> dictionary, OutputStream out)
+            throws IOException {
+        DueDate dueDate = task.getDueDate();
+        out.write(flags(task));
+        if (dueDate != null) {
+            int minutes = (int) DueDateCodec.toEpochMinutes(dueDate);
+            out.write(minutes >>> 24);
+            out.write(minutes >>> 16);
+            out.write(minutes >>> 8);
+            out.write(minutes);
+        }
+        writeString(task.getDescription(), out);
+        writeVarInt(task.getTags().size(), out);
+        for (Tag tag : task.getTags()) {
+            writeVarInt(dictionary.get(tag.getName()), out);
+        }
+    }
+
+    // EFFECTS: returns the flags byte packing the status, priority and due date presence of task
+    private static int flags(Task task) {
+        Priority priority = task.getPriority();
+        int flags = task.getStatus().ordinal() & STATUS_MASK;
+        if (priority.isImportant()) {
+            flags |= IMPORTANT_FLAG;
+        }
+        if (priority.isUrgent()) {
+            flags |= URGENT_FLAG;
+        }
+        if (task.getDueDate() != null) {
+            flags |= DUE_DATE_FLAG;
+        }
+        return flags;
+    }
+
+    // EFFECTS: writes s to out as a varint length followed by its UTF-8 bytes
+    private static void writeString(String s, OutputStream out) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length, out);
+        out.write(bytes);
+    }
+
+    // REQUIRES: value >= 0
+    // EFFECTS: writes value to out using 7 bits per byte, least significant group first
+    private static void writeVarInt(int value, OutputStream out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
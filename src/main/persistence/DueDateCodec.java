@@ -0,0 +1,54 @@
+package persistence;
+
+import model.DueDate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+
+// Converts due dates to and from their stored forms without going through Calendar:
+//     epoch minutes, a single number used by the binary format and JSON schema version 2
+//     year/month/day/hour/minute fields in local time, used by JSON schema version 1
+//         (month is zero-based, as it was written by Calendar)
+// Local time is converted with the zone rules of the default time zone, looked up once.
+public class DueDateCodec {
+    public static final long NO_DUE_DATE = Long.MIN_VALUE;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final ZoneRules ZONE_RULES = ZoneId.systemDefault().getRules();
+
+    // EFFECTS: returns dueDate in minutes since the epoch, or NO_DUE_DATE if dueDate is null
+    public static long toEpochMinutes(DueDate dueDate) {
+        if (dueDate == null) {
+            return NO_DUE_DATE;
+        }
+        return Math.floorDiv(dueDate.getDate().getTime(), MILLIS_PER_MINUTE);
+    }
+
+    // EFFECTS: returns the due date epochMinutes minutes after the epoch, or null if epochMinutes is NO_DUE_DATE
+    public static DueDate fromEpochMinutes(long epochMinutes) {
+        if (epochMinutes == NO_DUE_DATE) {
+            return null;
+        }
+        return new DueDate(new Date(epochMinutes * MILLIS_PER_MINUTE));
+    }
+
+    // EFFECTS: returns the due date at the given local time; month is zero-based and, like Calendar,
+    //     fields out of range roll over into the next field (e.g. month 12 is January of the next year)
+    public static DueDate fromFields(int year, int month, int day, int hour, int minute) {
+        LocalDateTime local = LocalDateTime.of(year, 1, 1, 0, 0)
+                .plusMonths(month).plusDays(day - 1L).plusHours(hour).plusMinutes(minute);
+        long epochSeconds = local.toEpochSecond(ZONE_RULES.getOffset(local));
+        return fromEpochMinutes(Math.floorDiv(epochSeconds, 60L));
+    }
+
+    // REQUIRES: dueDate != null
+    // EFFECTS: returns dueDate in local time
+    public static LocalDateTime toLocalDateTime(DueDate dueDate) {
+        long millis = dueDate.getDate().getTime();
+        Instant instant = Instant.ofEpochMilli(millis);
+        return LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(),
+                ZONE_RULES.getOffset(instant));
+    }
+}
@@ -5,9 +5,10 @@ import model.*;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
-// Converts model elements to JSON objects
+// Converts model elements to JSON objects, in JSON schema version 1 (see TaskJsonWriter)
 public class Jsonifier {
     
     // EFFECTS: returns JSON representation of tag
@@ -28,20 +29,18 @@ public class Jsonifier {
         return priorityJson;
     }
     
-    // EFFECTS: returns JSON respresentation of dueDate
+    // EFFECTS: returns JSON respresentation of dueDate (schema version 1)
     public static JSONObject dueDateToJson(DueDate dueDate) {
         if (dueDate == null) {
             return null;
         }
         JSONObject dueDateJson = new JSONObject();
-        Date myDate = dueDate.getDate();
-        Calendar myCal = Calendar.getInstance();
-        myCal.setTime(myDate);
-        dueDateJson.put("year", myCal.get(Calendar.YEAR));
-        dueDateJson.put("month", myCal.get(Calendar.MONTH));
-        dueDateJson.put("day", myCal.get(Calendar.DAY_OF_MONTH));
-        dueDateJson.put("hour", myCal.get(Calendar.HOUR_OF_DAY));
-        dueDateJson.put("minute", myCal.get(Calendar.MINUTE));
+        LocalDateTime myDate = DueDateCodec.toLocalDateTime(dueDate);
+        dueDateJson.put("year", myDate.getYear());
+        dueDateJson.put("month", myDate.getMonthValue() - 1);
+        dueDateJson.put("day", myDate.getDayOfMonth());
+        dueDateJson.put("hour", myDate.getHour());
+        dueDateJson.put("minute", myDate.getMinute());
         return dueDateJson;
     }
     
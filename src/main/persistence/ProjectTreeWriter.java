@@ -0,0 +1,142 @@
+package persistence;
+
+import model.LazyProject;
+import model.Priority;
+import model.Project;
+import model.Task;
+import model.Todo;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Streams trees of projects as NDJSON, depth-first: each project is one line, followed by the lines of
+// its subtree, i.e. its tasks and sub-projects in the order they were added. A task line is the same
+// JSON task object as in an NDJSON task file; a project line is
+//     {"project":<description>,"priority":{"important":<boolean>,"urgent":<boolean>},
+//      "progress":<percent>,"etc":<hours>,"lines":<count>}
+// where "project" always comes first and "lines" is the number of lines in its subtree, so a reader can
+// skip a whole subtree by counting line breaks instead of decoding it (see ProjectTreeParser).
+// Tasks also carry their progress and estimated time to complete, unless they are 0.
+// The subtree of a LazyProject that was never expanded is copied as it was read, and so is the line of
+// a task that was never decoded, or could not be decoded, and has not changed since.
+public class ProjectTreeWriter {
+
+    // EFFECTS: writes the trees of projects to out, one after the other
+    public static void write(List<Project> projects, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        Map<Project, Integer> lines = new IdentityHashMap<>();
+        for (Project p : projects) {
+            writeProject(p, lines, writer);
+        }
+        writer.flush();
+    }
+
+    // EFFECTS: writes project and its subtree to writer, depth-first without recursing, so trees of any depth
+    //     can be written; lines caches the number of lines in each subtree
+    private static void writeProject(Project project, Map<Project, Integer> lines, Writer writer)
+            throws IOException {
+        Deque<Iterator<Todo>> levels = new ArrayDeque<>();
+        writeHeaderAndRecords(project, lines, writer, levels);
+        while (!levels.isEmpty()) {
+            if (!levels.peek().hasNext()) {
+                levels.pop();
+                continue;
+            }
+            Todo child = levels.peek().next();
+            if (child instanceof Project) {
+                writeHeaderAndRecords((Project) child, lines, writer, levels);
+            } else {
+                writeTask((Task) child, writer);
+            }
+        }
+    }
+
+    // EFFECTS: writes the line of task to writer; a LazyTask that still holds the line it was read from
+    //     is written as that line
+    private static void writeTask(Task task, Writer writer) throws IOException {
+        if (!TaskJsonWriter.writeRecord(task, writer)) {
+            TaskJsonWriter.writeTaskWithTotals(task, writer);
+        }
+        writer.write('\n');
+    }
+
+    // MODIFIES: levels
+    // EFFECTS: writes the line of project to writer, followed by the records of its subtree if it is a
+    //     LazyProject that was never expanded; otherwise pushes its children, still to be written, onto levels
+    //     The records end with a line break even if they were read from the unterminated last line of a file.
+    private static void writeHeaderAndRecords(Project project, Map<Project, Integer> lines, Writer writer,
+                                              Deque<Iterator<Todo>> levels) throws IOException {
+        ByteBuffer records = project instanceof LazyProject ? ((LazyProject) project).getRecords() : null;
+        int subtreeLines = records != null ? ((LazyProject) project).getRecordLines() : countLines(project, lines);
+        writeHeader(project, subtreeLines, writer);
+        if (records != null) {
+            writer.append(StandardCharsets.UTF_8.decode(records.duplicate()));
+            if (records.hasRemaining() && records.get(records.limit() - 1) != '\n') {
+                writer.write('\n');
+            }
+        } else {
+            levels.push(project.getChildren().iterator());
+        }
+    }
+
+    // EFFECTS: writes the line that starts the tree of project, whose subtree has subtreeLines lines
+    private static void writeHeader(Project project, int subtreeLines, Writer writer) throws IOException {
+        Priority priority = project.getPriority();
+        writer.write("{\"project\":");
+        JSONObject.quote(project.getDescription(), writer);
+        writer.write(",\"priority\":{\"important\":");
+        writer.write(priority.isImportant() ? "true" : "false");
+        writer.write(",\"urgent\":");
+        writer.write(priority.isUrgent() ? "true" : "false");
+        writer.write("},\"progress\":" + project.getProgress());
+        writer.write(",\"etc\":" + project.getEstimatedTimeToComplete());
+        writer.write(",\"lines\":" + subtreeLines + "}\n");
+    }
+
+    // MODIFIES: lines
+    // EFFECTS: returns the number of lines written for the subtree of project, without its own line;
+    //     counts the lines of each sub-project after those of its own sub-projects, using a stack of the
+    //     projects still to count rather than recursing
+    private static int countLines(Project project, Map<Project, Integer> lines) {
+        Deque<Project> pending = new ArrayDeque<>();
+        pending.push(project);
+        while (!pending.isEmpty()) {
+            Project next = pending.peek();
+            if (lines.containsKey(next)) {
+                pending.pop();
+                continue;
+            }
+            if (pushUncounted(next, lines, pending)) {
+                continue;
+            }
+            int count = 0;
+            for (Todo child : next.getChildren()) {
+                count += child instanceof Project ? 1 + lines.get(child) : 1;
+            }
+            lines.put(pending.pop(), count);
+        }
+        return lines.get(project);
+    }
+
+    // MODIFIES: lines, pending
+    // EFFECTS: pushes the sub-projects of project whose lines are not counted yet onto pending, and returns
+    //     true if there were any; if project is a LazyProject that was never expanded, records the lines of
+    //     its records instead and returns true
+    private static boolean pushUncounted(Project project, Map<Project, Integer> lines, Deque<Project> pending) {
+        if (project instanceof LazyProject && !((LazyProject) project).isExpanded()) {
+            lines.put(project, ((LazyProject) project).getRecordLines());
+            return true;
+        }
+        boolean pushed = false;
+        for (Todo child : project.getChildren()) {
+            if (child instanceof Project && !lines.containsKey(child)) {
+                pending.push((Project) child);
+                pushed = true;
+            }
+        }
+        return pushed;
+    }
+}
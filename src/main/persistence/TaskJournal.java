@@ -0,0 +1,539 @@
+package persistence;
+
+import model.*;
+import org.json.JSONObject;
+import parsers.ParseReport;
+import parsers.TaskParser;
+import utility.AtomicFile;
+import utility.JsonFileIO;
+import utility.Logger;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+// Represents an append-only log of mutations to a list of tasks, kept on top of a JSON snapshot.
+// Each mutation is appended as one compact JSON record per line; at startup the log is replayed
+// on top of the snapshot. Once the log grows past a threshold, a new snapshot is written in the
+// background and the log is started over.
+// The first line of the log records the CRC32 of the snapshot it applies to, so a log that was
+// already folded into a newer snapshot (e.g. after a crash during compaction) is not replayed twice.
+// The snapshot may be in any format JsonFileIO reads; new snapshots are written in JSON. If some of the
+// snapshot cannot be read, it is never replaced: compaction is skipped, and tasks added without being
+// logged (e.g. by a bulk import) are logged instead. A record torn by a crash ends the log: it is cut off
+// at the last complete record before anything else is appended, so later records are not lost behind it.
+// Records are serialized on the thread that asks for them, and only written on the background thread.
+// A compaction only copies the list on the thread that asks for it; the snapshot is serialized from the
+// copy on the background thread. A task may change while it is being serialized, but any such change
+// is logged after the compaction, in the new log, and every record sets a value, so replaying a change
+// that is already in the snapshot leaves the task as it was.
+// A task that changed is either logged field by field as it is edited (and then marked clean by the
+// editor), or in full by recordDirtyTasks when it is saved, not both.
+public class TaskJournal implements Closeable {
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+
+    private File journalFile;
+    private File snapshotFile;
+    private long compactionThreshold;
+    private TaskList tasks;
+    private long bytesSinceCompaction;
+    private boolean snapshotIntact;  // every record of the snapshot was read, so it may be replaced
+    private int loggedSize;  // number of tasks in the list that the snapshot and log account for
+    private Map<Task, Integer> indexes;  // position of each task in tasks, by identity; rebuilt once stale
+    private ExecutorService executor;
+    private Writer journalWriter;
+    private TaskParser taskParser;
+
+    // EFFECTS: constructs a journal that logs to journalFile on top of the tasks in snapshotFile
+    public TaskJournal(File journalFile, File snapshotFile) {
+        this(journalFile, snapshotFile, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    // EFFECTS: constructs a journal that logs to journalFile on top of the tasks in snapshotFile,
+    //     and compacts the log into the snapshot once it grows past compactionThreshold bytes
+    public TaskJournal(File journalFile, File snapshotFile, long compactionThreshold) {
+        this.journalFile = journalFile;
+        this.snapshotFile = snapshotFile;
+        this.compactionThreshold = compactionThreshold;
+        tasks = new TaskList();
+        indexes = new IdentityHashMap<>();
+        taskParser = new TaskParser();
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "task-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the snapshot, replays the log on top of it and returns the resulting tasks;
+    //     the returned list is the one this journal records mutations of
+    public TaskList load() {
+        AtomicFile.recover(snapshotFile);
+        tasks = new TaskList();
+        readSnapshot();
+        try {
+            long crc = checksum(snapshotFile);
+            if (!replay(crc)) {
+                startJournal(crc);
+            }
+            openJournalWriter();
+        } catch (IOException e) {
+            Logger.log("TaskJournal", "Failed to open journal " + journalFile);
+        }
+        loggedSize = tasks.size();
+        tasks.markClean();
+        return tasks;
+    }
+
+    // EFFECTS: returns the list of tasks this journal records mutations of
+    public TaskList getTasks() {
+        return tasks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the position of task in the journalled list (by identity), or -1; positions are
+    //     looked up in a map, which is only rebuilt after the tasks it maps have moved (e.g. by a removal)
+    public int indexOf(Task task) {
+        Integer index = indexes.get(task);
+        if (index == null || index >= tasks.size() || tasks.get(index) != task) {
+            indexes.clear();
+            for (int i = 0; i < tasks.size(); i++) {
+                indexes.put(tasks.get(i), i);
+            }
+            index = indexes.get(task);
+        }
+        return index == null ? -1 : index;
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: records that task was appended to the end of the list; the record holds all of task,
+    //     so task is marked clean and is not logged again by recordDirtyTasks
+    public void recordAdded(Task task) {
+        StringWriter record = newRecord("add", -1);
+        record.write(",\"task\":");
+        writeQuietly(() -> TaskJsonWriter.writeTask(task, record));
+        loggedSize++;
+        task.markClean();
+        if (!tasks.isEmpty() && tasks.get(tasks.size() - 1) == task) {
+            indexes.put(task, tasks.size() - 1);
+        }
+        append(record);
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: records the full current state of task, replacing the task at its position on replay,
+    //     and marks task clean
+    public void recordPut(Task task) {
+        StringWriter record = newFieldRecord("put", task);
+        if (record != null) {
+            record.write(",\"task\":");
+            writeQuietly(() -> TaskJsonWriter.writeTask(task, record));
+            task.markClean();
+        }
+        append(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the full current state of every task that changed since it was last marked clean
+    public void recordDirtyTasks() {
+        for (Task t : tasks.getDirtyTasks()) {
+            recordPut(t);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the task at index was removed from the list
+    public void recordRemoved(int index) {
+        loggedSize--;
+        append(newRecord("remove", index));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the current description of task
+    public void recordDescription(Task task) {
+        StringWriter record = newFieldRecord("description", task);
+        if (record != null) {
+            record.write(",\"v\":" + JSONObject.quote(task.getDescription()));
+        }
+        append(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the current status of task
+    public void recordStatus(Task task) {
+        StringWriter record = newFieldRecord("status", task);
+        if (record != null) {
+            record.write(",\"v\":\"" + task.getStatus().name() + "\"");
+        }
+        append(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the current priority of task
+    public void recordPriority(Task task) {
+        StringWriter record = newFieldRecord("priority", task);
+        if (record != null) {
+            record.write(",\"important\":" + task.getPriority().isImportant());
+            record.write(",\"urgent\":" + task.getPriority().isUrgent());
+        }
+        append(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the current due date of task
+    public void recordDueDate(Task task) {
+        StringWriter record = newFieldRecord("due-date", task);
+        if (record != null) {
+            record.write(",\"v\":");
+            writeQuietly(() -> TaskJsonWriter.writeDueDate(task.getDueDate(), TaskJsonWriter.SCHEMA_VERSION,
+                    record));
+        }
+        append(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that a tag named tagName was added to task
+    public void recordTagAdded(Task task, String tagName) {
+        StringWriter record = newFieldRecord("tag-add", task);
+        if (record != null) {
+            record.write(",\"v\":" + JSONObject.quote(tagName));
+        }
+        append(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the tag named tagName was removed from task
+    public void recordTagRemoved(Task task, String tagName) {
+        StringWriter record = newFieldRecord("tag-remove", task);
+        if (record != null) {
+            record.write(",\"v\":" + JSONObject.quote(tagName));
+        }
+        append(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the current list of tasks and schedules a background rewrite of the snapshot with
+    //     it, after which the log is started over; if the snapshot could not be read in full, it is
+    //     kept, and the tasks added at the end of the list without being logged are logged instead
+    public void compact() {
+        if (!snapshotIntact) {
+            recordUnloggedTasks();
+            return;
+        }
+        List<Task> copy = new ArrayList<>(tasks);
+        bytesSinceCompaction = 0;
+        loggedSize = tasks.size();
+        executor.execute(() -> compactNow(copy));
+    }
+
+    // EFFECTS: waits until every record appended so far has been written and forced to disk
+    public void sync() {
+        try {
+            executor.submit(this::flushJournal).get();
+        } catch (Exception e) {
+            Logger.log("TaskJournal", "Failed to sync journal " + journalFile);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every pending record, stops the background writer and closes the log
+    @Override
+    public void close() {
+        sync();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            if (journalWriter != null) {
+                journalWriter.close();
+            }
+        } catch (InterruptedException | IOException e) {
+            Logger.log("TaskJournal", "Failed to close journal " + journalFile);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the tasks in the snapshot, in any format JsonFileIO reads, into tasks; records whether
+    //     every record of the snapshot was read (a missing snapshot counts as an empty one)
+    private void readSnapshot() {
+        snapshotIntact = true;
+        if (!snapshotFile.exists()) {
+            return;
+        }
+        try {
+            ParseReport report = JsonFileIO.diagnose(snapshotFile);
+            tasks.addAll(report.getTasks());
+            snapshotIntact = report.isLossless();
+            if (!snapshotIntact) {
+                Logger.log("TaskJournal", "Read " + report + " in " + snapshotFile + "; it will not be compacted");
+            }
+        } catch (IOException | RuntimeException e) {
+            snapshotIntact = false;
+            Logger.log("TaskJournal", "Failed to read snapshot " + snapshotFile + ": " + e);
+        }
+    }
+
+    // EFFECTS: returns the CRC32 of the content of file, or of no content if there is no such file
+    private static long checksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        if (file.exists()) {
+            try (InputStream in = new CheckedInputStream(new FileInputStream(file), crc)) {
+                byte[] buffer = new byte[64 * 1024];
+                while (in.read(buffer) != -1) {
+                    // the CRC is updated as the content is read
+                }
+            }
+        }
+        return crc.getValue();
+    }
+
+    // MODIFIES: this, journalFile
+    // EFFECTS: replays every record of the log on top of tasks, stopping at the first malformed or torn
+    //     record, and cuts the log off after the last record replayed so that new records are appended
+    //     after it; returns false if there is no log or the log belongs to a different snapshot
+    private boolean replay(long snapshotCrc) throws IOException {
+        if (!journalFile.exists()) {
+            return false;
+        }
+        byte[] log = Files.readAllBytes(journalFile.toPath());
+        int headerEnd = lineEnd(log, 0);
+        if (headerEnd < 0 || !isHeaderFor(new String(log, 0, headerEnd, StandardCharsets.UTF_8), snapshotCrc)) {
+            return false;
+        }
+        int end = replayRecords(log, headerEnd + 1);
+        if (end < log.length) {
+            Logger.log("TaskJournal", "Discarded " + (log.length - end) + " bytes after the last complete record of "
+                    + journalFile);
+            try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+                channel.force(true);
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies the complete (newline-terminated) records of log from start on, stopping at the first
+    //     one that is malformed; returns the offset just after the last record applied
+    private int replayRecords(byte[] log, int start) {
+        int end = lineEnd(log, start);
+        while (end >= 0 && applyRecord(new String(log, start, end - start, StandardCharsets.UTF_8))) {
+            bytesSinceCompaction += end + 1 - start;
+            start = end + 1;
+            end = lineEnd(log, start);
+        }
+        return start;
+    }
+
+    // EFFECTS: returns the index of the first line break in log at or after start, or -1 if there is none
+    private static int lineEnd(byte[] log, int start) {
+        for (int i = start; i < log.length; i++) {
+            if (log[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns true if header is a log header for the snapshot with the given CRC32
+    private boolean isHeaderFor(String header, long snapshotCrc) {
+        try {
+            JSONObject headerJson = new JSONObject(header);
+            return "base".equals(headerJson.getString("op")) && headerJson.getLong("crc") == snapshotCrc;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies the record represented by line to tasks; returns false if it is malformed
+    private boolean applyRecord(String line) {
+        try {
+            JSONObject record = new JSONObject(line);
+            String op = record.getString("op");
+            if (op.equals("add") || op.equals("put")) {
+                return applyTaskRecord(op, record);
+            } else if (op.equals("remove")) {
+                tasks.remove(record.getInt("i"));
+                return true;
+            }
+            applyFieldRecord(op, tasks.get(record.getInt("i")), record);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends (op "add") or replaces (op "put") the task in record; returns false if the
+    //     task is malformed
+    private boolean applyTaskRecord(String op, JSONObject record) {
+        Task task = taskParser.parseTask(record.getJSONObject("task"));
+        if (task == null) {
+            return false;
+        } else if (op.equals("add")) {
+            tasks.add(task);
+        } else {
+            tasks.set(record.getInt("i"), task);
+        }
+        return true;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: applies the field update named op in record to task
+    private void applyFieldRecord(String op, Task task, JSONObject record) {
+        switch (op) {
+            case "description": task.setDescription(record.getString("v"));
+                break;
+            case "status": task.setStatus(taskParser.toStatus(record.getString("v")));
+                break;
+            case "priority": task.setPriority(taskParser.toPriority(record));
+                break;
+            case "due-date": task.setDueDate(taskParser.toDueDate(record.get("v")));
+                break;
+            case "tag-add": task.addTag(record.getString("v"));
+                break;
+            case "tag-remove": task.removeTag(record.getString("v"));
+                break;
+            default: throw new IllegalArgumentException("Unknown journal record " + op);
+        }
+    }
+
+    // EFFECTS: returns a new record for op on the task at index (omitted if index < 0)
+    private StringWriter newRecord(String op, int index) {
+        StringWriter record = new StringWriter();
+        record.write("{\"op\":\"" + op + "\"");
+        if (index >= 0) {
+            record.write(",\"i\":" + index);
+        }
+        return record;
+    }
+
+    // EFFECTS: returns a new record for op on task, or null if task is not in the journalled list
+    private StringWriter newFieldRecord(String op, Task task) {
+        int index = indexOf(task);
+        return index < 0 ? null : newRecord(op, index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules record (if any) to be appended to the log in the background;
+    //     triggers a compaction once the log has grown past the threshold, unless the snapshot must be kept
+    private void append(StringWriter record) {
+        if (record == null) {
+            return;
+        }
+        record.write("}\n");
+        String line = record.toString();
+        executor.execute(() -> writeRecord(line));
+        bytesSinceCompaction += line.length();
+        if (bytesSinceCompaction > compactionThreshold && snapshotIntact) {
+            compact();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends line to the log and hands it to the operating system
+    private void writeRecord(String line) {
+        try {
+            journalWriter.write(line);
+            journalWriter.flush();
+        } catch (IOException | RuntimeException e) {
+            Logger.log("TaskJournal", "Failed to append to journal " + journalFile);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs every task at the end of the list that was added without being logged
+    private void recordUnloggedTasks() {
+        List<Task> unlogged = tasks.subList(Math.min(loggedSize, tasks.size()), tasks.size());
+        for (Task task : unlogged.toArray(new Task[0])) {
+            recordAdded(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: serializes copy, the list of tasks when the compaction was asked for, writes it as the new
+    //     snapshot file and starts the log over; if it fails, the old snapshot and log are kept
+    private void compactNow(List<Task> copy) {
+        long start = System.nanoTime();
+        byte[] snapshot;
+        try {
+            snapshot = serialize(copy);
+        } catch (IOException | RuntimeException e) {
+            Logger.log("TaskJournal", "Failed to serialize snapshot " + snapshotFile + ": " + e);
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(snapshot, 0, snapshot.length);
+        try {
+            AtomicFile.write(snapshotFile, out -> out.write(snapshot));
+            journalWriter.close();
+            startJournal(crc.getValue());
+            openJournalWriter();
+        } catch (IOException | RuntimeException e) {
+            Logger.log("TaskJournal", "Failed to compact journal " + journalFile);
+            return;
+        }
+        Logger.log("TaskJournal", "Compacted " + copy.size() + " tasks into " + snapshotFile + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    // EFFECTS: returns tasks serialized as a snapshot
+    private static byte[] serialize(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try (TaskJsonWriter writer = new TaskJsonWriter(snapshot)) {
+            writer.writeAll(tasks);
+        }
+        return snapshot.toByteArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the log with an empty log for the snapshot with the given CRC32
+    private void startJournal(long snapshotCrc) throws IOException {
+        String header = "{\"op\":\"base\",\"crc\":" + snapshotCrc + "}\n";
+        AtomicFile.write(journalFile, out -> out.write(header.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the log for appending
+    private void openJournalWriter() throws IOException {
+        journalWriter = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(journalFile, true), StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: forces the log to disk
+    private Void flushJournal() throws IOException {
+        if (journalWriter != null) {
+            journalWriter.flush();
+        }
+        try (FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            out.getChannel().force(true);
+        }
+        return null;
+    }
+
+    // EFFECTS: runs action, which writes to an in-memory writer and therefore cannot fail
+    private static void writeQuietly(RecordWriter action) {
+        try {
+            action.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Writes part of a record to an in-memory writer
+    private interface RecordWriter {
+        void write() throws IOException;
+    }
+}
@@ -0,0 +1,164 @@
+package persistence;
+
+import model.*;
+import org.json.JSONObject;
+import parsers.TaskJsonDecoder;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+// Streams tasks as a JSONArray straight into an output stream, one task at a time.
+// Schema version 2 stores a due date as a single number of epoch minutes; schema version 1
+// stores it as a year/month/day/hour/minute object and produces the same JSON as
+// Jsonifier.taskListToJson, without building it in memory. TaskParser reads both.
+public class TaskJsonWriter implements Closeable {
+    public static final int LEGACY_SCHEMA_VERSION = 1;
+    public static final int SCHEMA_VERSION = 2;
+
+    private Writer writer;
+    private int schemaVersion;
+    private int tasksWritten;
+
+    // EFFECTS: constructs a writer that emits UTF-8 encoded JSON of the current schema version
+    //     to out through a buffer
+    public TaskJsonWriter(OutputStream out) {
+        this(out, SCHEMA_VERSION);
+    }
+
+    // REQUIRES: schemaVersion is LEGACY_SCHEMA_VERSION or SCHEMA_VERSION
+    // EFFECTS: constructs a writer that emits UTF-8 encoded JSON of schemaVersion to out through a buffer
+    public TaskJsonWriter(OutputStream out, int schemaVersion) {
+        this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), schemaVersion);
+    }
+
+    // EFFECTS: constructs a writer that emits JSON of the current schema version to writer
+    public TaskJsonWriter(Writer writer) {
+        this(writer, SCHEMA_VERSION);
+    }
+
+    // REQUIRES: schemaVersion is LEGACY_SCHEMA_VERSION or SCHEMA_VERSION
+    // EFFECTS: constructs a writer that emits JSON of schemaVersion to writer
+    public TaskJsonWriter(Writer writer, int schemaVersion) {
+        this.writer = writer;
+        this.schemaVersion = schemaVersion;
+        tasksWritten = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes task as the next element of the JSONArray
+    public void write(Task task) throws IOException {
+        writer.write(tasksWritten == 0 ? '[' : ',');
+        writeTask(task, schemaVersion, writer);
+        tasksWritten++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every task in tasks as the next elements of the JSONArray
+    public void writeAll(Iterable<Task> tasks) throws IOException {
+        for (Task t : tasks) {
+            write(t);
+        }
+    }
+
+    // EFFECTS: returns the number of tasks written so far
+    public int getTasksWritten() {
+        return tasksWritten;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: terminates the JSONArray, flushes and closes the underlying stream
+    @Override
+    public void close() throws IOException {
+        writer.write(tasksWritten == 0 ? "[]" : "]");
+        writer.close();
+    }
+
+    // EFFECTS: writes the JSON representation of task in the current schema version to writer
+    public static void writeTask(Task task, Writer writer) throws IOException {
+        writeTask(task, SCHEMA_VERSION, writer);
+    }
+
+    // REQUIRES: schemaVersion is LEGACY_SCHEMA_VERSION or SCHEMA_VERSION
+    // EFFECTS: writes the JSON representation of task in schemaVersion to writer
+    public static void writeTask(Task task, int schemaVersion, Writer writer) throws IOException {
+        writeTask(task, schemaVersion, false, writer);
+    }
+
+    // EFFECTS: if task is a LazyTask read from a JSON task object that it still holds (see
+    //     LazyTask.getRecord), writes that object to writer as it was read, without decoding it, and returns
+    //     true; otherwise writes nothing and returns false. The object may not be valid JSON, so it must
+    //     only be written where a line of its own is expected, e.g. in NDJSON
+    public static boolean writeRecord(Task task, Writer writer) throws IOException {
+        ByteBuffer record = task instanceof LazyTask
+                ? ((LazyTask) task).getRecord(TaskJsonDecoder.RECORD_DECODER) : null;
+        if (record == null) {
+            return false;
+        }
+        writer.append(StandardCharsets.UTF_8.decode(record));
+        return true;
+    }
+
+    // EFFECTS: writes the JSON representation of task in the current schema version to writer, with
+    //     "progress" and "etc" fields for its progress and estimated time to complete unless they are 0
+    public static void writeTaskWithTotals(Task task, Writer writer) throws IOException {
+        writeTask(task, SCHEMA_VERSION, true, writer);
+    }
+
+    // REQUIRES: schemaVersion is LEGACY_SCHEMA_VERSION or SCHEMA_VERSION
+    // EFFECTS: writes the JSON representation of task in schemaVersion to writer, with its progress and
+    //     estimated time to complete if totals is true and they are not 0
+    private static void writeTask(Task task, int schemaVersion, boolean totals, Writer writer) throws IOException {
+        writer.write("{\"description\":");
+        JSONObject.quote(task.getDescription(), writer);
+        writer.write(",\"tags\":[");
+        writeTags(task, writer);
+        writer.write("],\"due-date\":");
+        writeDueDate(task.getDueDate(), schemaVersion, writer);
+        writer.write(",\"priority\":{\"important\":");
+        writer.write(task.getPriority().isImportant() ? "true" : "false");
+        writer.write(",\"urgent\":");
+        writer.write(task.getPriority().isUrgent() ? "true" : "false");
+        writer.write("},\"status\":\"");
+        writer.write(task.getStatus().name());
+        writer.write('"');
+        if (totals && task.getProgress() != 0) {
+            writer.write(",\"progress\":" + task.getProgress());
+        }
+        if (totals && task.getEstimatedTimeToComplete() != 0) {
+            writer.write(",\"etc\":" + task.getEstimatedTimeToComplete());
+        }
+        writer.write('}');
+    }
+
+    // EFFECTS: writes the tags of task as a sequence of JSON tag objects
+    private static void writeTags(Task task, Writer writer) throws IOException {
+        boolean first = true;
+        for (Tag t : task.getTags()) {
+            if (!first) {
+                writer.write(',');
+            }
+            writer.write("{\"name\":");
+            JSONObject.quote(t.getName(), writer);
+            writer.write('}');
+            first = false;
+        }
+    }
+
+    // EFFECTS: writes the JSON representation of dueDate in schemaVersion, or null if there is no due date
+    static void writeDueDate(DueDate dueDate, int schemaVersion, Writer writer) throws IOException {
+        if (dueDate == null) {
+            writer.write("null");
+        } else if (schemaVersion == LEGACY_SCHEMA_VERSION) {
+            LocalDateTime local = DueDateCodec.toLocalDateTime(dueDate);
+            writer.write("{\"year\":" + local.getYear());
+            writer.write(",\"month\":" + (local.getMonthValue() - 1));
+            writer.write(",\"day\":" + local.getDayOfMonth());
+            writer.write(",\"hour\":" + local.getHour());
+            writer.write(",\"minute\":" + local.getMinute() + "}");
+        } else {
+            writer.write(Long.toString(DueDateCodec.toEpochMinutes(dueDate)));
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class ListView extends StackPane {
     private static final String FXML = "resources/fxml/ListView.fxml";
     private File fxmlFile = new File(FXML);
     private List<Task> tasks;
+    private ListViewController controller;
     
     // REQUIRES: task != null
     // MODIFIES: this
@@ -27,10 +28,30 @@ public class ListView extends StackPane {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
-            ListViewController controller = fxmlLoader.<ListViewController>getController();
+            controller = fxmlLoader.<ListViewController>getController();
             controller.setData(tasks);
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
     }
-}
\ No newline at end of file
+
+    // REQUIRES: tasks have only been added to the end of the list shown since it was last shown
+    // MODIFIES: this
+    // EFFECTS: shows the tasks added to the list since, e.g. as they finish loading, as far as they
+    //          fit on the pages shown
+    public void refresh() {
+        controller.refresh();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows a progress indicator while tasks are still loading
+    public void setLoading(boolean loading) {
+        controller.setLoading(loading);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the progress indicator to progress, from 0 to 1, or to indeterminate if progress < 0
+    public void setProgress(double progress) {
+        controller.setProgress(progress);
+    }
+}
@@ -1,22 +1,39 @@
 package ui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import model.Project;
 import model.Task;
+import model.TaskList;
+import persistence.TaskJournal;
 import utility.JsonFileIO;
+import utility.Logger;
+import utility.SaveScheduler;
+import utility.TaskBatcher;
 
-import java.util.ArrayList;
 import java.util.List;
 
 // The PomoTODO GUI Application
+// The window opens right away with an empty list; tasks are read on a background thread and
+// added to the list view in batches as they are parsed, the first batch being kept small so
+// that the first tasks show up quickly.
 public class PomoTodoApp extends Application {
     public static final String TITLE = "PomoTODO";
     public static final double WIDTH = 520;
     public static final double HEIGHT = 800;
-    private static List<Task> tasks = JsonFileIO.read();
+    public static final String SAVE_DELAY_PROPERTY = "pomotodo.saveDelay";
+    public static final int FIRST_BATCH_SIZE = 50;
+    public static final int BATCH_SIZE = 1000;
+    private static List<Task> tasks = new TaskList();
+    private static volatile boolean loaded = false;
+    private static List<Project> projects;
+    private static SaveScheduler saveScheduler = new SaveScheduler(PomoTodoApp::getLoadedTasks,
+            Long.getLong(SAVE_DELAY_PROPERTY, SaveScheduler.DEFAULT_QUIET_PERIOD_MILLIS), Platform::runLater);
     private static Stage primaryStage;
+    private static ListView currentListView;
     
     public static void main(String[] args) {
         launch(args);
@@ -39,6 +56,30 @@ public class PomoTodoApp extends Application {
         return tasks;
     }
     
+    // EFFECTS: returns the projects in this PomoTODO APP; only the projects at the top are read,
+    //          the first time they are asked for, and their contents when they are first expanded
+    public static synchronized List<Project> getProjects() {
+        if (projects == null) {
+            projects = JsonFileIO.readProjects();
+        }
+        return projects;
+    }
+
+    // EFFECTS: returns the list of tasks once all of them have been loaded, null until then
+    private static List<Task> getLoadedTasks() {
+        return loaded ? tasks : null;
+    }
+
+    // EFFECTS: returns true once all tasks have been loaded
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    // EFFECTS: returns the scheduler that saves the tasks in the background after they change
+    public static SaveScheduler getSaveScheduler() {
+        return saveScheduler;
+    }
+
     // REQUIRES: primaryStage != null AND root != null
     public static void setScene(Parent root) {
         try {
@@ -46,26 +87,111 @@ public class PomoTodoApp extends Application {
             primaryStage.setTitle(TITLE);
             primaryStage.setScene(scene);
             primaryStage.show();
+            currentListView = root instanceof ListView ? (ListView) root : null;
+            if (currentListView != null) {
+                currentListView.setLoading(!loaded);
+            }
         } catch (Exception e) {
             System.out.println("Failed to load new Scene!");
         }
     }
     
     // EFFECTS: Application starts here!
+    //          the window is shown before any task is read; tasks are loaded in the background
     @Override
     public void start(Stage primaryStage) throws Exception {
         setPrimaryStage(primaryStage);
         setScene(new ListView(tasks));
+        Thread loader = new Thread(PomoTodoApp::loadTasks, "task-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
 
+    // EFFECTS: reads the tasks and hands them to the JavaFX application thread
+    private static void loadTasks() {
+        long start = System.nanoTime();
+        if (JsonFileIO.isJournalMode()) {
+            TaskJournal journal = JsonFileIO.loadJournal();
+            Platform.runLater(() -> adoptJournal(journal));
+        } else {
+            readInBatches();
+            Platform.runLater(PomoTodoApp::finishLoading);
+        }
+        Logger.log("PomoTodoApp", "Read tasks in " + (System.nanoTime() - start) / 1_000_000 + " ms");
     }
 
+    // EFFECTS: reads the tasks and publishes them in batches of FIRST_BATCH_SIZE, then BATCH_SIZE
+    private static void readInBatches() {
+        TaskBatcher batcher = new TaskBatcher(FIRST_BATCH_SIZE, BATCH_SIZE, PomoTodoApp::publish);
+        JsonFileIO.read(batcher);
+        batcher.flush();
+    }
+
+    // EFFECTS: adds batch to the tasks on the JavaFX application thread, and shows in the list view how
+    //          much of the file has been read; only the first page of tasks is rendered while loading
+    private static void publish(List<Task> batch) {
+        double progress = JsonFileIO.getReadProgress();
+        Platform.runLater(() -> {
+            tasks.addAll(batch);
+            if (currentListView != null) {
+                currentListView.refresh();
+                currentListView.setProgress(progress);
+            }
+        });
+    }
 
-    // EFFECTS: Application ends and all current tasks are saved to tasks.json
+    // MODIFIES: this
+    // EFFECTS: replaces the tasks with the list kept by journal, keeping (and journaling) any task added
+    //          while loading, and shows the new list; only then are mutations logged in journal, so that
+    //          nothing done to the placeholder list while loading is logged against the loaded one
+    private static void adoptJournal(TaskJournal journal) {
+        List<Task> journalTasks = journal.getTasks();
+        for (Task t : tasks) {
+            journalTasks.add(t);
+            journal.recordAdded(t);
+        }
+        JsonFileIO.useJournal(journal);
+        tasks = journalTasks;
+        finishLoading();
+        if (currentListView != null) {
+            setScene(new ListView(tasks));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the loaded tasks as saved, hides the progress indicator and allows saving;
+    //          if a save was requested while loading, the list is left dirty, so that the save writes it
+    private static void finishLoading() {
+        if (tasks instanceof TaskList) {
+            ((TaskList) tasks).markClean();
+            if (saveScheduler.getQueueDepth() > 0) {
+                ((TaskList) tasks).markDirty();
+            }
+        }
+        loaded = true;
+        if (currentListView != null) {
+            currentListView.setLoading(false);
+        }
+    }
+
+    // EFFECTS: Application ends and all current tasks are saved to tasks.json, and projects (if they were
+    //          ever read) to projects.ndjson
+    //          changes are normally saved in the background already; only pending ones are flushed here
+    //          nothing is saved if the tasks have not finished loading, so the file is never truncated
     @Override
     public void stop() throws Exception {
         super.stop();
-        JsonFileIO.write(tasks);
-
+        saveScheduler.shutdown();
+        if (loaded) {
+            JsonFileIO.write(tasks);
+        } else {
+            Logger.log("PomoTodoApp", "Tasks were still loading, not saving");
+        }
+        synchronized (PomoTodoApp.class) {
+            if (projects != null) {
+                JsonFileIO.writeProjects(projects);
+            }
+        }
     }
 
 }
@@ -0,0 +1,135 @@
+package utility;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Crash-safe file replacement: content is written to a sibling temp file, forced to disk
+// and then renamed over the target, so the target is always either the old or the new version.
+// The previous version is kept as a rolling backup next to the target.
+public class AtomicFile {
+    public static final String TEMP_SUFFIX = ".tmp";
+    public static final String BACKUP_SUFFIX = ".bak";
+
+    // Writes the content of a file to the given stream
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // MODIFIES: target
+    // EFFECTS: atomically replaces target with the bytes written by content;
+    //     the previous target (if any) becomes the backup file
+    //   throws IOException if the new content could not be written; target is left untouched
+    //   whatever content throws, the temp file is deleted unless it has been renamed over target
+    public static void write(File target, Content content) throws IOException {
+        File temp = tempFile(target);
+        boolean replaced = false;
+        try {
+            try (SyncOnCloseOutputStream out = new SyncOnCloseOutputStream(new FileOutputStream(temp))) {
+                content.writeTo(out);
+            }
+            keepBackup(target);
+            replace(temp.toPath(), target.toPath());
+            replaced = true;
+        } finally {
+            if (!replaced) {
+                temp.delete();
+            }
+        }
+        syncDirectory(target);
+    }
+
+    // MODIFIES: target
+    // EFFECTS: restores target from its backup if target is missing or empty, and deletes
+    //     any temp file left behind by an interrupted write; takes constant time
+    public static void recover(File target) {
+        tempFile(target).delete();
+        File backup = backupFile(target);
+        if ((!target.exists() || target.length() == 0) && backup.exists()) {
+            try {
+                Files.deleteIfExists(target.toPath());
+                linkOrCopy(backup.toPath(), target.toPath());
+            } catch (IOException e) {
+                Logger.log("AtomicFile", "Failed to restore " + target + " from backup");
+            }
+        }
+    }
+
+    // EFFECTS: returns the backup file kept for target
+    public static File backupFile(File target) {
+        return new File(target.getPath() + BACKUP_SUFFIX);
+    }
+
+    // EFFECTS: returns the temp file used while writing target
+    private static File tempFile(File target) {
+        return new File(target.getPath() + TEMP_SUFFIX);
+    }
+
+    // MODIFIES: target's backup file
+    // EFFECTS: makes the current target the backup without ever removing target itself
+    private static void keepBackup(File target) throws IOException {
+        if (target.exists() && target.length() > 0) {
+            Path backup = backupFile(target).toPath();
+            Files.deleteIfExists(backup);
+            linkOrCopy(target.toPath(), backup);
+        }
+    }
+
+    // MODIFIES: to
+    // EFFECTS: makes to refer to the content of from; uses a hard link when the file system
+    //     supports it, and falls back to a copy otherwise
+    private static void linkOrCopy(Path from, Path to) throws IOException {
+        try {
+            Files.createLink(to, from);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // MODIFIES: to
+    // EFFECTS: renames from over to, atomically if the file system supports it
+    private static void replace(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // EFFECTS: forces the directory entry of target to disk where the platform allows it
+    private static void syncDirectory(File target) {
+        Path dir = target.getAbsoluteFile().getParentFile().toPath();
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on every platform; the rename itself is still atomic
+        }
+    }
+
+    // An output stream over a file that forces the file's content to disk when closed
+    private static class SyncOnCloseOutputStream extends FilterOutputStream {
+        private FileOutputStream fileOut;
+        private boolean closed;
+
+        SyncOnCloseOutputStream(FileOutputStream fileOut) {
+            super(fileOut);
+            this.fileOut = fileOut;
+            closed = false;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                flush();
+                fileOut.getChannel().force(true);
+                fileOut.close();
+            }
+        }
+    }
+}
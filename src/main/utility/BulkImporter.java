@@ -0,0 +1,189 @@
+package utility;
+
+import model.Tag;
+import model.Task;
+import parsers.TaskCsvDecoder;
+import parsers.TaskJsonDecoder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+// Imports tasks in bulk into a list of tasks, e.g. to migrate from another tool.
+// Tasks are decoded from a CSV, NDJSON or JSON file and added in batches. Duplicates (of tasks already
+// in the list or earlier in the file) are found with a hash set rather than a scan of the list, and each
+// batch is added at once. Progress is reported after every batch, and the list is saved once, at the end.
+public class BulkImporter {
+    public static final int DEFAULT_BATCH_SIZE = 5000;
+
+    private final List<Task> tasks;
+    private final int batchSize;
+    private final Consumer<Progress> progressListener;
+    private final Consumer<List<Task>> saver;
+    private Set<Task> known;
+    private long startNanos;
+    private int read;
+    private int imported;
+    private int duplicates;
+
+    // Represents the progress of an import: how many records have been read, and what became of them
+    public static class Progress {
+        private final int read;
+        private final int imported;
+        private final int duplicates;
+        private final int skipped;
+        private final long elapsedNanos;
+        private final boolean done;
+
+        // EFFECTS: constructs the progress of an import after elapsedNanos
+        public Progress(int read, int imported, int duplicates, int skipped, long elapsedNanos, boolean done) {
+            this.read = read;
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.skipped = skipped;
+            this.elapsedNanos = elapsedNanos;
+            this.done = done;
+        }
+
+        // EFFECTS: returns the number of tasks read so far
+        public int getRead() {
+            return read;
+        }
+
+        // EFFECTS: returns the number of tasks added to the list so far
+        public int getImported() {
+            return imported;
+        }
+
+        // EFFECTS: returns the number of tasks left out so far because they were already in the list
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        // EFFECTS: returns the number of records skipped so far because they are not valid tasks
+        public int getSkipped() {
+            return skipped;
+        }
+
+        // EFFECTS: returns the time taken so far, in nanoseconds
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        // EFFECTS: returns true if the import has finished, including the save
+        public boolean isDone() {
+            return done;
+        }
+
+        // EFFECTS: returns the number of records handled per second so far
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (read + skipped) * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d tasks (%d imported, %d duplicates, %d skipped) in %.1f s, %.0f records/s",
+                    done ? "Imported" : "Read", read, imported, duplicates, skipped, elapsedNanos / 1e9,
+                    getRecordsPerSecond());
+        }
+    }
+
+    // EFFECTS: constructs an importer that adds tasks to tasks, batchSize at a time, reporting the progress
+    //     to progressListener after every batch
+    public BulkImporter(List<Task> tasks, int batchSize, Consumer<Progress> progressListener) {
+        this(tasks, batchSize, progressListener, JsonFileIO::writeAll);
+    }
+
+    // EFFECTS: constructs an importer like the one above that saves the tasks with saver, once the import is done
+    public BulkImporter(List<Task> tasks, int batchSize, Consumer<Progress> progressListener,
+                        Consumer<List<Task>> saver) {
+        this.tasks = tasks;
+        this.batchSize = batchSize;
+        this.progressListener = progressListener;
+        this.saver = saver;
+    }
+
+    // MODIFIES: this, tasks, JsonFileIO.jsonDataFile
+    // EFFECTS: imports the tasks in file, which holds CSV if its name ends in .csv, and NDJSON or a JSON
+    //     array otherwise; returns the final progress
+    //   throws IOException if file cannot be read
+    //   throws IllegalArgumentException if a CSV file has no description column
+    public Progress importFile(File file) throws IOException {
+        boolean ndjson = JsonFileIO.isNdjsonFile(file);
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            if (file.getName().toLowerCase().endsWith(".csv")) {
+                TaskCsvDecoder decoder = new TaskCsvDecoder(reader);
+                return importTasks(decoder, decoder::getSkippedCount);
+            }
+            TaskJsonDecoder decoder = ndjson ? TaskJsonDecoder.forLines(reader) : new TaskJsonDecoder(reader);
+            return importTasks(decoder, decoder::getSkippedCount);
+        }
+    }
+
+    // MODIFIES: this, tasks, JsonFileIO.jsonDataFile
+    // EFFECTS: imports the tasks from source; returns the final progress
+    public Progress importTasks(Iterator<Task> source) {
+        return importTasks(source, () -> 0);
+    }
+
+    // MODIFIES: this, tasks, JsonFileIO.jsonDataFile
+    // EFFECTS: imports the tasks from source, which has skipped the number of records given by skipped;
+    //     returns the final progress
+    private Progress importTasks(Iterator<Task> source, IntSupplier skipped) {
+        startNanos = System.nanoTime();
+        known = new HashSet<>(tasks);
+        read = 0;
+        imported = 0;
+        duplicates = 0;
+        List<Task> batch = new ArrayList<>(batchSize);
+        while (source.hasNext()) {
+            batch.add(source.next());
+            if (batch.size() == batchSize) {
+                addBatch(batch, skipped.getAsInt());
+            }
+        }
+        addBatch(batch, skipped.getAsInt());
+        saver.accept(tasks);
+        Progress progress = progress(skipped.getAsInt(), true);
+        progressListener.accept(progress);
+        return progress;
+    }
+
+    // MODIFIES: this, tasks, batch
+    // EFFECTS: adds the tasks in batch that are not duplicates to tasks, reports the progress and empties batch
+    private void addBatch(List<Task> batch, int skipped) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Task> added = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            if (known.add(task)) {
+                added.add(task);
+            } else {
+                discard(task);
+            }
+        }
+        read += batch.size();
+        imported += added.size();
+        duplicates += batch.size() - added.size();
+        tasks.addAll(added);
+        batch.clear();
+        progressListener.accept(progress(skipped, false));
+    }
+
+    // MODIFIES: task
+    // EFFECTS: detaches task, a duplicate that is not imported, from its tags so that they do not keep it
+    private static void discard(Task task) {
+        for (Tag tag : new ArrayList<>(task.getTags())) {
+            task.removeTag(tag);
+        }
+    }
+
+    // EFFECTS: returns the progress so far
+    private Progress progress(int skipped, boolean done) {
+        return new Progress(read, imported, duplicates, skipped, System.nanoTime() - startNanos, done);
+    }
+}
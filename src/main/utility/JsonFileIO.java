@@ -1,55 +1,509 @@
 package utility;
 
+import model.Project;
 import model.Task;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import parsers.TaskParser;
-import persistence.Jsonifier;
+import model.TaskList;
+import parsers.BinaryTaskParser;
+import parsers.ParseReport;
+import parsers.ProjectTreeParser;
+import parsers.TaskJsonDecoder;
+import persistence.BinaryTaskWriter;
+import persistence.ProjectTreeWriter;
+import persistence.TaskJournal;
+import persistence.TaskJsonWriter;
 
 import java.io.*;
-import java.nio.file.Path;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 // File input/output operations
+// Tasks are saved in JSON by default, in the compact binary task format with -Dpomotodo.format=binary,
+// or as NDJSON (one task per line, so new tasks are appended) with -Dpomotodo.format=ndjson;
+// reading detects the format of jsonDataFile from its first bytes.
+// With -Dpomotodo.lazy=true, binary and NDJSON tasks are read as LazyTasks, which are decoded on first use.
+// Projects, with their tasks and sub-projects, are saved as trees in projectsFile (see ProjectTreeWriter);
+// only the projects at the top are read when it is opened, the rest when they are first expanded.
 public class JsonFileIO {
     public static final File jsonDataFile = new File("./resources/json/tasks.json");
+    public static final File journalFile = new File("./resources/json/tasks.journal");
+    public static final File projectsFile = new File("./resources/json/projects.ndjson");
+    public static final String JOURNAL_PROPERTY = "pomotodo.journal";
+    public static final String FORMAT_PROPERTY = "pomotodo.format";
+    public static final String LAZY_PROPERTY = "pomotodo.lazy";
+    private static final Object fileLock = new Object();
+    private static final Object projectsLock = new Object();
+    private static volatile TaskJournal journal = null;
+    private static volatile boolean appendable = false;
+    private static volatile long bytesRead = 0;     // of jsonDataFile by read, written only by the reading thread
+    private static volatile long bytesToRead = 0;
+
+    // Represents the file I/O of a save whose tasks were already serialized, so that it can run on
+    // another thread while the tasks go on changing
+    public interface Save {
+        void write() throws IOException;
+    }
 
     // EFFECTS: attempts to read jsonDataFile and parse it
     //           returns a list of tasks from the content of jsonDataFile
+    //           in journal mode, the mutations logged in journalFile are replayed on top
+    //           the returned list is a TaskList with no changes, so write can tell what changed
     public static List<Task> read() {
-        StringBuilder stringBuilder = new StringBuilder();
-        String line;
-        TaskParser tp = new TaskParser();
+        if (isJournalMode()) {
+            TaskJournal loaded = loadJournal();
+            useJournal(loaded);
+            return loaded.getTasks();
+        }
+        TaskList tasks = new TaskList();
+        read(tasks::add);
+        tasks.markClean();
+        return tasks;
+    }
+
+    // EFFECTS: reads jsonDataFile, replays the mutations logged in journalFile on top and returns the journal
+    //           that holds the resulting tasks; mutations are not logged in it until it is passed to
+    //           useJournal, so it can be loaded on a background thread while a placeholder list is in use
+    public static TaskJournal loadJournal() {
+        TaskJournal loaded = new TaskJournal(journalFile, jsonDataFile);
+        loaded.load();
+        return loaded;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs the mutations of the tasks of loaded in loaded from now on; must be called on the thread
+    //           that mutates them
+    public static void useJournal(TaskJournal loaded) {
+        journal = loaded;
+    }
+
+    // EFFECTS: attempts to read jsonDataFile and parse it one task at a time;
+    //           each parsed task is handed to taskConsumer as soon as it is read
+    //           if jsonDataFile is missing or empty, it is first restored from its backup
+    //           the file may be in JSON, NDJSON or binary format; the format is detected from its first bytes
+    //           corrupt lines of an NDJSON file are skipped, and the tasks on the other lines are still read
+    public static void read(Consumer<Task> taskConsumer) {
+        AtomicFile.recover(jsonDataFile);
+        appendable = false;
+        bytesRead = 0;
+        bytesToRead = jsonDataFile.length();
         try {
-            FileReader fr = new FileReader(jsonDataFile);
-            BufferedReader br = new BufferedReader(fr);
-            while ((line = br.readLine()) != null) {
-                stringBuilder.append(line);
+            if (isBinaryFile(jsonDataFile)) {
+                readBinary(jsonDataFile).forEach(taskConsumer);
+            } else if (isNdjsonFile(jsonDataFile)) {
+                readNdjson(jsonDataFile, taskConsumer);
+                appendable = isNdjsonMode();
+            } else {
+                readJson(jsonDataFile, taskConsumer);
             }
         } catch (Exception e) {
-            /// just move on
+            Logger.log("JsonFileIO", "Failed to read " + jsonDataFile + ": " + e);
+        }
+    }
+
+    // EFFECTS: returns the fraction of jsonDataFile that the last call to read(taskConsumer) has read so far,
+    //           from 0 to 1, or -1 if it is not known (e.g. before the first read, or if the file is empty);
+    //           may be called on any thread
+    public static double getReadProgress() {
+        long total = bytesToRead;
+        return total <= 0 ? -1 : Math.min(1.0, (double) bytesRead / total);
+    }
+
+    // EFFECTS: parses file, in JSON, NDJSON or binary format, and returns the tasks together with a
+    //           diagnostic for every record that was skipped and counters to check for data loss
+    //   throws IOException if file cannot be read
+    public static ParseReport diagnose(File file) throws IOException {
+        if (isBinaryFile(file)) {
+            return new BinaryTaskParser().diagnose(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            return isNdjsonFile(file) ? TaskJsonDecoder.diagnoseLines(reader) : TaskJsonDecoder.diagnose(reader);
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: adds task to the end of tasks; returns the save that stores the addition on its own, or null
+    //           if a save of the tasks has to be requested for it
+    //           in journal mode, the addition is logged; in NDJSON mode, if tasks had no other unsaved
+    //           changes, task is serialized here and tasks are marked as saved, and the returned save
+    //           appends task to jsonDataFile without rewriting the rest of the file
+    //           as with prepareSave, the returned save may run on another thread, after the saves
+    //           prepared before it, and if it fails, tasks must be marked dirty again
+    public static Save add(List<Task> tasks, Task task) {
+        boolean clean = tasks instanceof TaskList && !((TaskList) tasks).isDirty();
+        tasks.add(task);
+        if (journal != null) {
+            journal.recordAdded(task);
+            return null;
         }
+        if (!clean || !appendable) {
+            return null;
+        }
+        byte[] line;
         try {
-            String stringToParse = stringBuilder.toString();
-            List<Task> tasks = tp.parse(stringToParse);
-            return tasks;
-        } catch (Exception e) {
-            return new ArrayList<>();
+            line = NdjsonTaskFile.toLine(task);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        ((TaskList) tasks).markClean();
+        return () -> {
+            synchronized (fileLock) {
+                NdjsonTaskFile.append(jsonDataFile, line);
+            }
+        };
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: removes task itself (not a task equal to it) from tasks, if it is there;
+    //           in journal mode, the removal is logged
+    public static void remove(List<Task> tasks, Task task) {
+        TaskJournal current = journal;
+        int index = current != null ? current.indexOf(task) : identityIndexOf(tasks, task);
+        if (index < 0) {
+            return;
+        }
+        tasks.remove(index);
+        if (current != null) {
+            current.recordRemoved(index);
         }
     }
 
+    // EFFECTS: returns the position of task in tasks (by identity), or -1
+    private static int identityIndexOf(List<Task> tasks, Task task) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i) == task) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-    
-    // EFFECTS: saves the tasks to jsonDataFile
+    // MODIFIES: tasks, jsonDataFile
+    // EFFECTS: saves the tasks to jsonDataFile, in binary format if isBinaryMode() and in JSON otherwise
+    //           the file is replaced atomically, so a crash during the save leaves the
+    //           previous version intact; the previous version is also kept as a backup
+    //           if tasks is a TaskList with no changes since it was read or last saved, nothing is written
+    //           in journal mode, only the tasks that changed are logged (structural changes are
+    //           logged as they happen), and the log is forced to disk
     public static void write(List<Task> tasks) {
-        JSONArray jsonArray = Jsonifier.taskListToJson(tasks);
+        Save save = prepareSave(tasks);
+        if (save == null) {
+            return;
+        }
+        try {
+            save.write();
+        } catch (IOException e) {
+            e.printStackTrace();
+            if (tasks instanceof TaskList) {
+                ((TaskList) tasks).markDirty();
+            }
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: serializes what write would save of tasks, marks tasks as saved and returns the save that
+    //           writes it to disk, or null if there is nothing to save; only the returned save does file
+    //           I/O, so it can run on a background thread while tasks go on changing on this one
+    //           if the returned save fails, tasks must be marked dirty again for the next save to write them
+    //           in journal mode, the changed tasks are logged and the returned save forces the log to disk
+    public static Save prepareSave(List<Task> tasks) {
+        Save save;
+        if (journal != null) {
+            journal.recordDirtyTasks();
+            save = journal::sync;
+        } else if (!(tasks instanceof TaskList) || ((TaskList) tasks).isDirty()) {
+            save = prepareSnapshot(tasks);
+        } else {
+            return null;
+        }
+        if (save != null && tasks instanceof TaskList) {
+            ((TaskList) tasks).markClean();
+        }
+        return save;
+    }
+
+    // MODIFIES: tasks, jsonDataFile
+    // EFFECTS: saves tasks once after many tasks were added at once, e.g. by a bulk import;
+    //           in journal mode, a new snapshot is written instead of logging every added task
+    public static synchronized void writeAll(List<Task> tasks) {
+        if (journal == null) {
+            write(tasks);
+            return;
+        }
+        journal.compact();
+        journal.sync();
+        if (tasks instanceof TaskList) {
+            ((TaskList) tasks).markClean();
+        }
+    }
+
+    // EFFECTS: serializes all of tasks in the format of the current mode and returns the save that
+    //           atomically replaces jsonDataFile with them, or null if they cannot be serialized
+    private static Save prepareSnapshot(List<Task> tasks) {
+        boolean ndjson = isNdjsonMode();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (isBinaryMode()) {
+                BinaryTaskWriter.write(tasks, out);
+            } else if (ndjson) {
+                NdjsonTaskFile.writeLines(tasks, out);
+            } else {
+                try (TaskJsonWriter writer = new TaskJsonWriter(out, TaskJsonWriter.SCHEMA_VERSION)) {
+                    writer.writeAll(tasks);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        byte[] snapshot = out.toByteArray();
+        return () -> {
+            synchronized (fileLock) {
+                AtomicFile.write(jsonDataFile, file -> file.write(snapshot));
+                appendable = ndjson;
+            }
+        };
+    }
+
+    // EFFECTS: returns the projects in projectsFile, or no projects if there is no such file; each is a
+    //           LazyProject whose tasks and sub-projects are read when it is first expanded
+    //           malformed project lines, and tasks that are not in any project, are skipped and logged
+    public static List<Project> readProjects() {
+        List<Project> projects = new ArrayList<>();
+        if (projectsFile.exists()) {
+            try {
+                parseProjects(ByteBuffer.wrap(Files.readAllBytes(projectsFile.toPath())), projects);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return projects;
+    }
+
+    // MODIFIES: projects
+    // EFFECTS: adds the projects at the top of bytes, the content of projectsFile, to projects
+    private static void parseProjects(ByteBuffer bytes, List<Project> projects) {
+        ProjectTreeParser parser = new ProjectTreeParser();
+        int[] outside = {0};
+        parser.parse(bytes, todo -> {
+            if (todo instanceof Project) {
+                projects.add((Project) todo);
+            } else {
+                outside[0]++;
+            }
+        });
+        if (parser.getSkippedCount() + outside[0] > 0) {
+            Logger.log("JsonFileIO", "Skipped " + parser.getSkippedCount() + " malformed projects and "
+                    + outside[0] + " tasks outside any project in " + projectsFile);
+        }
+    }
+
+    // MODIFIES: projectsFile
+    // EFFECTS: atomically replaces projectsFile with the trees of projects; the subtrees of projects that
+    //           were never expanded are copied as they were read
+    public static void writeProjects(List<Project> projects) {
+        try {
+            prepareProjectsSave(projects).write();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // EFFECTS: serializes the trees of projects and returns the save that atomically replaces projectsFile
+    //           with them; as with prepareSave, only the returned save does file I/O, so it can run on a
+    //           background thread while the projects go on changing on this one
+    //   throws IOException if the projects cannot be serialized
+    public static Save prepareProjectsSave(List<Project> projects) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProjectTreeWriter.write(projects, out);
+        byte[] trees = out.toByteArray();
+        return () -> {
+            synchronized (projectsLock) {
+                AtomicFile.write(projectsFile, file -> file.write(trees));
+            }
+        };
+    }
+
+    // EFFECTS: returns the tasks in the JSON or NDJSON file; the tasks that cannot be parsed are skipped
+    public static List<Task> importJson(File file) {
+        List<Task> tasks = new ArrayList<>();
+        try {
+            if (isNdjsonFile(file)) {
+                readNdjson(file, tasks::add);
+            } else {
+                readJson(file, tasks::add);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return tasks;
+    }
+
+    // EFFECTS: saves the tasks to file in JSON format, regardless of isBinaryMode()
+    //           the legacy schema version is used, so that older versions can import the file
+    public static void exportJson(List<Task> tasks, File file) {
         try {
-            FileWriter fw = new FileWriter(jsonDataFile);
-            fw.write(jsonArray.toString());
-            fw.close();
+            writeJson(tasks, file, TaskJsonWriter.LEGACY_SCHEMA_VERSION);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    // EFFECTS: returns the tasks in the binary file; the file is memory-mapped and records are
+    //           decoded directly from the mapped pages, without reading the file into the heap first
+    //           the file stays mapped until the mapping is garbage collected, and on some platforms
+    //           (e.g. Windows) a mapped file cannot be replaced, so only use this for files that are not saved
+    //   throws IOException if the file cannot be mapped (e.g. it is larger than 2GB)
+    public static List<Task> readMapped(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BinaryTaskParser().parse(buffer);
+        }
+    }
+
+    // EFFECTS: returns true if tasks are saved in binary format (i.e. -Dpomotodo.format=binary)
+    public static boolean isBinaryMode() {
+        return "binary".equals(System.getProperty(FORMAT_PROPERTY));
+    }
+
+    // EFFECTS: returns true if tasks are saved as NDJSON (i.e. -Dpomotodo.format=ndjson)
+    public static boolean isNdjsonMode() {
+        return "ndjson".equals(System.getProperty(FORMAT_PROPERTY));
+    }
+
+    // EFFECTS: returns true if tasks are read lazily, i.e. decoded on first use (-Dpomotodo.lazy=true)
+    public static boolean isLazyMode() {
+        return Boolean.getBoolean(LAZY_PROPERTY);
+    }
+
+    // EFFECTS: returns the tasks in the binary file; the file is read into the heap as it is, rather than
+    //     mapped, so that it can be replaced by the next save as soon as it has been read;
+    //     in lazy mode, records are decoded on first use
+    private static List<Task> readBinary(File file) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (file == jsonDataFile) {
+            bytesRead = bytes.capacity();
+        }
+        if (isLazyMode()) {
+            return new BinaryTaskParser().parseLazily(bytes);
+        }
+        return new BinaryTaskParser().parse(bytes);
+    }
+
+    // EFFECTS: streams the tasks in the NDJSON file to taskConsumer, logging any corrupt lines skipped;
+    //     in lazy mode, each line is handed over undecoded as a LazyTask
+    private static void readNdjson(File file, Consumer<Task> taskConsumer) throws IOException {
+        if (isLazyMode()) {
+            List<Task> tasks = NdjsonTaskFile.readLazily(file);
+            if (file == jsonDataFile) {
+                bytesRead = bytesToRead;
+            }
+            tasks.forEach(taskConsumer);
+            return;
+        }
+        int corruptLines;
+        try (InputStream in = open(file)) {
+            corruptLines = NdjsonTaskFile.read(in, taskConsumer);
+        }
+        if (corruptLines > 0) {
+            Logger.log("JsonFileIO", "Skipped " + corruptLines + " corrupt lines in " + file);
+        }
+    }
+
+    // EFFECTS: streams the tasks in the JSON file to taskConsumer, logging how many elements were skipped
+    private static void readJson(File file, Consumer<Task> taskConsumer) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(open(file), StandardCharsets.UTF_8))) {
+            TaskJsonDecoder decoder = new TaskJsonDecoder(reader);
+            decoder.forEachRemaining(taskConsumer);
+            if (decoder.getSkippedCount() > 0) {
+                Logger.log("JsonFileIO", "Skipped " + decoder.getSkippedCount() + " of "
+                        + decoder.getRecordCount() + " tasks in " + file);
+            }
+        }
+    }
+
+    // EFFECTS: opens file for reading; the bytes read from jsonDataFile are counted for getReadProgress
+    private static InputStream open(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        return file == jsonDataFile ? new ProgressInputStream(in) : in;
+    }
+
+    // EFFECTS: atomically replaces file with the JSON representation of tasks
+    private static void writeJson(List<Task> tasks, File file, int schemaVersion) throws IOException {
+        AtomicFile.write(file, out -> {
+            try (TaskJsonWriter writer = new TaskJsonWriter(out, schemaVersion)) {
+                writer.writeAll(tasks);
+            }
+        });
+    }
+
+    // EFFECTS: returns true if the first non-whitespace byte of file starts an object rather than an array,
+    //     i.e. file holds NDJSON
+    static boolean isNdjsonFile(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            int b = in.read();
+            while (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                b = in.read();
+            }
+            return b == '{';
+        }
+    }
+
+    // EFFECTS: returns true if file starts with the magic bytes of the binary task format
+    private static boolean isBinaryFile(File file) throws IOException {
+        byte[] header = new byte[BinaryTaskWriter.MAGIC.length];
+        try (InputStream in = new FileInputStream(file)) {
+            return in.read(header) == header.length && BinaryTaskParser.isBinaryFormat(header);
+        }
+    }
+
+    // EFFECTS: returns true if persistence is in journal mode (i.e. -Dpomotodo.journal=true)
+    public static boolean isJournalMode() {
+        return Boolean.getBoolean(JOURNAL_PROPERTY);
+    }
+
+    // EFFECTS: returns the journal that records mutations of the tasks returned by read(),
+    //           or null if persistence is not in journal mode
+    public static TaskJournal getJournal() {
+        return journal;
+    }
+
+    // Represents the input stream of jsonDataFile while read reads it, counting the bytes read in bytesRead
+    private static class ProgressInputStream extends FilterInputStream {
+        ProgressInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            bytesRead += skipped;
+            return skipped;
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package utility;
+
+import model.Task;
+import parsers.TaskJsonDecoder;
+import persistence.TaskJsonWriter;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Tasks stored as NDJSON: one compact JSON task object per line.
+// A task is added by appending a line, without rewriting the file. The file can be read in byte ranges
+// that are moved to the start of a line, so several threads can decode parts of it at once, and a
+// corrupt line (e.g. one cut short by a crash) only loses the task on that line.
+// A huge file can also be read lazily, keeping each line's bytes and decoding a task when it is first used.
+public class NdjsonTaskFile {
+    public static final long MIN_RANGE_SIZE = 1024 * 1024;
+    private static final int SCAN_SIZE = 4096;
+
+    // MODIFIES: file
+    // EFFECTS: appends task to file as one line and forces it to disk; the time taken does not depend
+    //     on the size of file. If the last line of file is unterminated, the task starts a new line.
+    public static void append(File file, Task task) throws IOException {
+        append(file, toLine(task));
+    }
+
+    // REQUIRES: line is a task as returned by toLine
+    // MODIFIES: file
+    // EFFECTS: appends line to file and forces it to disk; if the last line of file is unterminated,
+    //     line starts a new one
+    public static void append(File file, byte[] line) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size > 0 && !endsWithLineBreak(channel, size)) {
+                size += channel.write(ByteBuffer.wrap(new byte[] {'\n'}), size);
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(line);
+            while (bytes.hasRemaining()) {
+                size += channel.write(bytes, size);
+            }
+            channel.force(false);
+        }
+    }
+
+    // EFFECTS: returns task as one line of NDJSON, in UTF-8 and ending with a line break
+    public static byte[] toLine(Task task) throws IOException {
+        StringWriter line = new StringWriter();
+        TaskJsonWriter.writeTask(task, TaskJsonWriter.SCHEMA_VERSION, line);
+        line.write('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: file
+    // EFFECTS: atomically replaces file with tasks, one per line
+    public static void write(File file, Iterable<Task> tasks) throws IOException {
+        AtomicFile.write(file, out -> writeLines(tasks, out));
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes tasks to out, one per line, and flushes out; a LazyTask read from a line that is
+    //     undecoded or unreadable, and unchanged, is written as that line, so it is neither decoded nor lost
+    public static void writeLines(Iterable<Task> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (Task task : tasks) {
+            if (!TaskJsonWriter.writeRecord(task, writer)) {
+                TaskJsonWriter.writeTask(task, TaskJsonWriter.SCHEMA_VERSION, writer);
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // EFFECTS: streams the tasks in file to taskConsumer, in order; returns the number of corrupt lines skipped
+    public static int read(File file, Consumer<Task> taskConsumer) throws IOException {
+        return readRange(file, 0, Long.MAX_VALUE, taskConsumer);
+    }
+
+    // EFFECTS: streams the tasks in the NDJSON bytes of in to taskConsumer, in order; returns the number of
+    //     corrupt lines skipped. in is read to its end but not closed.
+    public static int read(InputStream in, Consumer<Task> taskConsumer) {
+        TaskJsonDecoder decoder = TaskJsonDecoder.forLines(new InputStreamReader(in, StandardCharsets.UTF_8));
+        decoder.forEachRemaining(taskConsumer);
+        return decoder.getCorruptLines();
+    }
+
+    // EFFECTS: streams the tasks on the lines of file that start within the bytes [start, end) to
+    //     taskConsumer, in order; returns the number of corrupt lines among them.
+    //     Ranges that cover the file without overlapping read every line exactly once.
+    public static int readRange(File file, long start, long end, Consumer<Task> taskConsumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long from = lineStart(channel, start);
+            long to = lineStart(channel, end);
+            Reader reader = new InputStreamReader(new RangeInputStream(channel, from, to), StandardCharsets.UTF_8);
+            TaskJsonDecoder decoder = TaskJsonDecoder.forLines(reader);
+            decoder.forEachRemaining(taskConsumer);
+            return decoder.getCorruptLines();
+        }
+    }
+
+    // EFFECTS: returns the tasks in file, in order, without decoding them: each non-blank line becomes
+    //     a LazyTask that is decoded the first time it is used. A corrupt line is only found when its
+    //     task is decoded.
+    public static List<Task> readLazily(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        List<Task> tasks = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i == bytes.length || bytes[i] == '\n') {
+                if (!isBlank(bytes, start, i)) {
+                    tasks.add(TaskJsonDecoder.lazyTask(ByteBuffer.wrap(bytes, start, i - start).slice()));
+                }
+                start = i + 1;
+            }
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns true if bytes[start, end) are all whitespace
+    private static boolean isBlank(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] != ' ' && bytes[i] != '\r' && bytes[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the tasks in file, in order; the file is split into at most parts byte ranges
+    //     of at least MIN_RANGE_SIZE bytes each, which are decoded in parallel
+    public static List<Task> readParallel(File file, int parts) throws IOException {
+        long size = file.length();
+        int ranges = (int) Math.max(1, Math.min(parts, size / MIN_RANGE_SIZE));
+        try {
+            List<List<Task>> chunks = IntStream.range(0, ranges).parallel()
+                    .mapToObj(i -> readChunk(file, size * i / ranges, size * (i + 1) / ranges))
+                    .collect(Collectors.toList());
+            List<Task> tasks = new ArrayList<>();
+            chunks.forEach(tasks::addAll);
+            return tasks;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // EFFECTS: returns the tasks on the lines of file that start within the bytes [start, end)
+    //   throws UncheckedIOException if file cannot be read
+    private static List<Task> readChunk(File file, long start, long end) {
+        List<Task> tasks = new ArrayList<>();
+        try {
+            readRange(file, start, end, tasks::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns the offset of the first line that starts at or after position,
+    //     or the size of the file if there is none
+    private static long lineStart(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        if (position <= 0 || position >= size) {
+            return Math.max(0, Math.min(position, size));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            int n = channel.read(buffer, offset);
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += Math.max(n, 1);
+        }
+        return size;
+    }
+
+    // EFFECTS: returns true if the last of the size bytes in channel is a line break
+    private static boolean endsWithLineBreak(FileChannel channel, long size) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        return channel.read(last, size - 1) == 1 && last.get(0) == '\n';
+    }
+
+    // Represents the bytes [start, end) of a file channel as an input stream; reads are positional,
+    // so they do not disturb other readers of the channel
+    private static class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package utility;
+
+import model.Task;
+import model.TaskList;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Saves the tasks in the background after they change.
+// Every change requests a save; the save runs once no further change has been requested for the
+// quiet period, so a burst of edits results in a single write.
+// The tasks belong to the owner thread (e.g. the JavaFX application thread): when a save is due, they are
+// serialized there, between two changes, and only the file I/O then runs on a background thread, so the
+// owner thread never waits for the disk and the background thread never reads tasks that are changing.
+public class SaveScheduler {
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 2000;
+
+    private final Supplier<List<Task>> tasks;
+    private final Function<List<Task>, JsonFileIO.Save> serializer;
+    private final long quietPeriodMillis;
+    private final Executor ownerThread;
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger pendingRequests;
+    private ScheduledFuture<?> scheduledSave;
+    private boolean stopped;
+    private volatile long lastSaveLatencyMillis;
+    private volatile int saveCount;
+
+    // EFFECTS: constructs a scheduler that saves the list supplied by tasks to JsonFileIO's files once no
+    //     change has been requested for quietPeriodMillis; the list is serialized on ownerThread, the
+    //     thread that changes it (e.g. Platform::runLater); while tasks supplies null (e.g. the list is
+    //     still being loaded), saves are postponed
+    public SaveScheduler(Supplier<List<Task>> tasks, long quietPeriodMillis, Executor ownerThread) {
+        this(tasks, JsonFileIO::prepareSave, quietPeriodMillis, ownerThread);
+    }
+
+    // EFFECTS: constructs a scheduler that saves the list supplied by tasks once no change has been
+    //     requested for quietPeriodMillis; serializer is applied to the list on ownerThread, and returns
+    //     the file I/O that saves what it serialized (or null if there is nothing to save), which is run
+    //     on the background thread; while tasks supplies null, saves are postponed
+    public SaveScheduler(Supplier<List<Task>> tasks, Function<List<Task>, JsonFileIO.Save> serializer,
+                         long quietPeriodMillis, Executor ownerThread) {
+        this.tasks = tasks;
+        this.serializer = serializer;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.ownerThread = ownerThread;
+        pendingRequests = new AtomicInteger(0);
+        lastSaveLatencyMillis = 0;
+        saveCount = 0;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "save-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: requests a save after the quiet period; postpones any save that has not started yet
+    public void requestSave() {
+        pendingRequests.incrementAndGet();
+        schedule();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs save, whose tasks were serialized on the owner thread (e.g. by JsonFileIO.add), on the
+    //     background thread after the saves handed to it before; if it fails, the tasks are marked dirty
+    //     and a save of all of them is requested; once the scheduler is shut down, save is run right away
+    //     on this thread
+    public void submit(JsonFileIO.Save save) {
+        submit(save, "1 task", this::retry);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs save, which stores what is described by saved and was serialized on the owner thread
+    //     (e.g. by JsonFileIO.prepareProjectsSave), on the background thread after the saves handed to it
+    //     before; if it fails, onFailure is run on the background thread; once the scheduler is shut down,
+    //     save is run right away on this thread
+    public void submit(JsonFileIO.Save save, String saved, Runnable onFailure) {
+        try {
+            executor.execute(() -> write(save, saved, onFailure));
+        } catch (RejectedExecutionException e) {
+            write(save, saved, onFailure);
+        }
+    }
+
+    // REQUIRES: called on the owner thread
+    // MODIFIES: this
+    // EFFECTS: saves any pending change right away, waits for it and for every earlier save, and stops
+    //     the background thread; pending changes are dropped if the tasks cannot be saved yet, and if a
+    //     save fails, the tasks are left dirty for the caller to save
+    public void shutdown() {
+        synchronized (this) {
+            stopped = true;
+            if (scheduledSave != null) {
+                scheduledSave.cancel(false);
+            }
+        }
+        prepare();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Logger.log("SaveScheduler", "Failed to save on shutdown");
+        }
+        if (getQueueDepth() > 0) {
+            Logger.log("SaveScheduler", "Dropped " + getQueueDepth() + " save requests on shutdown");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: schedules the tasks to be serialized on the owner thread after the quiet period,
+    //     replacing any save that has not started yet
+    private synchronized void schedule() {
+        if (scheduledSave != null) {
+            scheduledSave.cancel(false);
+        }
+        if (!stopped) {
+            scheduledSave = executor.schedule(() -> ownerThread.execute(this::prepare),
+                    quietPeriodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // EFFECTS: returns the number of save requests that have not been written yet
+    public int getQueueDepth() {
+        return pendingRequests.get();
+    }
+
+    // EFFECTS: returns the duration of the last save's file I/O, in milliseconds
+    public long getLastSaveLatencyMillis() {
+        return lastSaveLatencyMillis;
+    }
+
+    // EFFECTS: returns the number of saves performed so far
+    public int getSaveCount() {
+        return saveCount;
+    }
+
+    // REQUIRES: called on the owner thread
+    // MODIFIES: this
+    // EFFECTS: if any save was requested since the last save, serializes the tasks and hands the file I/O
+    //     to the background thread; nothing is written if the tasks have not changed since they were saved
+    private void prepare() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        int coalesced = pendingRequests.getAndSet(0);
+        if (coalesced == 0) {
+            return;
+        }
+        List<Task> taskList = tasks.get();
+        if (taskList == null) {
+            pendingRequests.addAndGet(coalesced);
+            schedule();
+            return;
+        }
+        JsonFileIO.Save save = serializer.apply(taskList);
+        if (save != null) {
+            String saved = taskList.size() + " tasks (" + coalesced + " requests coalesced)";
+            executor.execute(() -> write(save, saved, this::retry));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the file I/O of save, which stores what is described by saved; if it fails, runs onFailure
+    private void write(JsonFileIO.Save save, String saved, Runnable onFailure) {
+        long start = System.nanoTime();
+        try {
+            save.write();
+        } catch (IOException | RuntimeException e) {
+            Logger.log("SaveScheduler", "Failed to save " + saved + ": " + e);
+            onFailure.run();
+            return;
+        }
+        lastSaveLatencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        saveCount++;
+        Logger.log("SaveScheduler", "Saved " + saved + " in " + lastSaveLatencyMillis
+                + " ms (" + getQueueDepth() + " pending)");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: after a save of the tasks failed, the tasks were marked saved for nothing, so marks them dirty,
+    //     so that the next save (or the caller's, after shutdown) writes them, and requests another save;
+    //     safe to call on the background thread, as it only sets a flag of the list
+    private void retry() {
+        List<Task> taskList = tasks.get();
+        if (taskList instanceof TaskList) {
+            ((TaskList) taskList).markDirty();
+        }
+        requestSave();
+    }
+}
@@ -0,0 +1,54 @@
+package utility;
+
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Represents a consumer that collects tasks into batches and hands each full batch to a sink, e.g. to show
+// tasks as they are read. The first batch is kept small, so that the first tasks can be shown quickly.
+// Every batch handed to the sink is a new list, which the sink may keep or use on another thread.
+public class TaskBatcher implements Consumer<Task> {
+    private final int firstBatchSize;
+    private final int batchSize;
+    private final Consumer<List<Task>> sink;
+    private List<Task> batch;
+    private int batchesHanded;
+
+    // REQUIRES: firstBatchSize > 0 AND batchSize > 0
+    // EFFECTS: constructs a batcher that hands sink a batch of firstBatchSize tasks, then batches of batchSize
+    public TaskBatcher(int firstBatchSize, int batchSize, Consumer<List<Task>> sink) {
+        this.firstBatchSize = firstBatchSize;
+        this.batchSize = batchSize;
+        this.sink = sink;
+        this.batch = new ArrayList<>(firstBatchSize);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds task to the current batch, and hands the batch to the sink if it is full
+    @Override
+    public void accept(Task task) {
+        batch.add(task);
+        if (batch.size() >= (batchesHanded == 0 ? firstBatchSize : batchSize)) {
+            flush();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hands the current batch to the sink, unless it is empty, and starts a new one
+    public void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Task> full = batch;
+        batch = new ArrayList<>(batchSize);
+        batchesHanded++;
+        sink.accept(full);
+    }
+
+    // EFFECTS: returns the number of batches handed to the sink so far
+    public int getBatchesHanded() {
+        return batchesHanded;
+    }
+}
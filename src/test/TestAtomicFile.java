@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.AtomicFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAtomicFile {
+    private Path dir;
+    private File target;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("atomic-file");
+        target = dir.resolve("tasks.json").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testWriteReplacesTargetAndKeepsBackup() throws IOException {
+        AtomicFile.write(target, out -> out.write(bytes("first")));
+        assertEquals("first", read(target));
+        assertFalse(AtomicFile.backupFile(target).exists());
+        AtomicFile.write(target, out -> out.write(bytes("second")));
+        assertEquals("second", read(target));
+        assertEquals("first", read(AtomicFile.backupFile(target)));
+        assertFalse(tempFile().exists());
+    }
+
+    @Test
+    public void testFailedWriteLeavesTargetUntouched() throws IOException {
+        AtomicFile.write(target, out -> out.write(bytes("saved")));
+        try {
+            AtomicFile.write(target, out -> {
+                out.write(bytes("half"));
+                throw new IOException("disk full");
+            });
+            fail("Should have thrown IOException");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals("saved", read(target));
+        assertFalse(tempFile().exists());
+    }
+
+    @Test
+    public void testSerializerRuntimeExceptionLeavesNoTempFile() throws IOException {
+        AtomicFile.write(target, out -> out.write(bytes("saved")));
+        try {
+            AtomicFile.write(target, out -> {
+                out.write(bytes("half"));
+                throw new IllegalStateException("serializer failed");
+            });
+            fail("Should have thrown IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals("saved", read(target));
+        assertFalse(tempFile().exists());
+    }
+
+    @Test
+    public void testRecoverRestoresEmptyTargetFromBackup() throws IOException {
+        AtomicFile.write(target, out -> out.write(bytes("first")));
+        AtomicFile.write(target, out -> out.write(bytes("second")));
+        Files.write(target.toPath(), new byte[0]);
+        Files.write(tempFile().toPath(), bytes("torn"));
+        AtomicFile.recover(target);
+        assertEquals("first", read(target));
+        assertFalse(tempFile().exists());
+    }
+
+    @Test
+    public void testRecoverKeepsNonEmptyTarget() throws IOException {
+        AtomicFile.write(target, out -> out.write(bytes("first")));
+        AtomicFile.write(target, out -> out.write(bytes("second")));
+        AtomicFile.recover(target);
+        assertEquals("second", read(target));
+    }
+
+    private File tempFile() {
+        return new File(target.getPath() + AtomicFile.TEMP_SUFFIX);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
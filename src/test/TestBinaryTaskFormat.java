@@ -0,0 +1,142 @@
+import model.DueDate;
+import model.LazyTask;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.Test;
+import parsers.BinaryTaskParser;
+import parsers.ParseReport;
+import persistence.BinaryTaskWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBinaryTaskFormat {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Task> tasks = sampleTasks();
+        byte[] bytes = write(tasks);
+        assertTrue(BinaryTaskParser.isBinaryFormat(bytes));
+        List<Task> parsed = new BinaryTaskParser().parse(ByteBuffer.wrap(bytes));
+        assertEquals(tasks, parsed);
+        assertEquals(tasks.get(0).getTags(), parsed.get(0).getTags());
+        assertEquals(tasks.get(1).getDueDate(), parsed.get(1).getDueDate());
+        assertEquals(Status.DONE, parsed.get(2).getStatus());
+    }
+
+    @Test
+    public void testDirectBufferAndLazyParseMatchHeapParse() throws IOException {
+        List<Task> tasks = sampleTasks();
+        byte[] bytes = write(tasks);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(tasks, new BinaryTaskParser().parse(direct));
+        List<Task> lazy = new BinaryTaskParser().parseLazily(ByteBuffer.wrap(bytes));
+        assertFalse(((LazyTask) lazy.get(0)).isDecoded());
+        assertEquals(tasks, lazy);
+    }
+
+    @Test
+    public void testEmptyList() throws IOException {
+        byte[] bytes = write(Collections.emptyList());
+        assertEquals(Collections.emptyList(), new BinaryTaskParser().parse(ByteBuffer.wrap(bytes)));
+        assertTrue(new BinaryTaskParser().diagnose(ByteBuffer.wrap(bytes)).isLossless());
+    }
+
+    @Test
+    public void testTruncatedFileKeepsRecordsBeforeTheCut() throws IOException {
+        List<Task> tasks = sampleTasks();
+        byte[] bytes = write(tasks);
+        byte[] cut = Arrays.copyOf(bytes, bytes.length - 2);
+        assertEquals(tasks.subList(0, 2), new BinaryTaskParser().parse(ByteBuffer.wrap(cut)));
+        ParseReport report = new BinaryTaskParser().diagnose(ByteBuffer.wrap(cut));
+        assertTrue(report.isTruncated());
+        assertFalse(report.isLossless());
+    }
+
+    @Test
+    public void testUnknownHeaderHasNoTasks() throws IOException {
+        byte[] bytes = write(sampleTasks());
+        byte[] otherVersion = bytes.clone();
+        otherVersion[BinaryTaskWriter.MAGIC.length] = (byte) (BinaryTaskWriter.VERSION + 1);
+        assertEquals(Collections.emptyList(), new BinaryTaskParser().parse(ByteBuffer.wrap(otherVersion)));
+        byte[] notBinary = "[{\"description\":\"json\"}]".getBytes();
+        assertFalse(BinaryTaskParser.isBinaryFormat(notBinary));
+        assertEquals(Collections.emptyList(), new BinaryTaskParser().parse(ByteBuffer.wrap(notBinary)));
+        assertFalse(BinaryTaskParser.isBinaryFormat(new byte[] {'P'}));
+    }
+
+    @Test
+    public void testCorruptDictionarySizeIsReportedAsTruncated() {
+        byte[][] sizes = {{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F},
+                {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, {0x7F}};
+        for (byte[] size : sizes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(BinaryTaskWriter.MAGIC, 0, BinaryTaskWriter.MAGIC.length);
+            out.write(BinaryTaskWriter.VERSION);
+            out.write(size, 0, size.length);
+            writeString("home", out);
+            byte[] bytes = out.toByteArray();
+            assertEquals(Collections.emptyList(), new BinaryTaskParser().parse(ByteBuffer.wrap(bytes)));
+            assertEquals(Collections.emptyList(), new BinaryTaskParser().parseLazily(ByteBuffer.wrap(bytes)));
+            ParseReport report = new BinaryTaskParser().diagnose(ByteBuffer.wrap(bytes));
+            assertTrue(report.isTruncated());
+            assertEquals(0, report.getRecordCount());
+        }
+    }
+
+    @Test
+    public void testMalformedRecordIsSkippedAndReported() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(BinaryTaskWriter.MAGIC, 0, BinaryTaskWriter.MAGIC.length);
+        out.write(BinaryTaskWriter.VERSION);
+        out.write(1);
+        writeString("home", out);
+        out.write(3);
+        writeRecord("first", 0, out);
+        int badRecordOffset = out.size();
+        writeRecord("tag outside dictionary", 7, out);
+        writeRecord("third", 0, out);
+        ParseReport report = new BinaryTaskParser().diagnose(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(2, report.getParsedCount());
+        assertEquals(1, report.getSkippedCount());
+        assertEquals("third", report.getTasks().get(1).getDescription());
+        assertTrue(report.getTasks().get(1).containsTag("home"));
+        assertEquals(1, report.getDiagnostics().get(0).getIndex());
+        assertEquals(badRecordOffset, report.getDiagnostics().get(0).getOffset());
+        assertFalse(report.isTruncated());
+    }
+
+    private static List<Task> sampleTasks() {
+        Task t1 = new Task("Read collaboration policy ## cpsc210; project; important; up next");
+        Task t2 = new Task("Buy groceries ## errands; urgent; in progress; cpsc210");
+        t2.setDueDate(new DueDate());
+        return Arrays.asList(t1, t2, new Task("plain ## done"));
+    }
+
+    private static byte[] write(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryTaskWriter.write(tasks, out);
+        return out.toByteArray();
+    }
+
+    // writes a record with no due date whose only tag is at tagIndex in the dictionary (all lengths < 128)
+    private static void writeRecord(String description, int tagIndex, ByteArrayOutputStream out) {
+        out.write(description.length() + 4);
+        out.write(0);
+        writeString(description, out);
+        out.write(1);
+        out.write(tagIndex);
+    }
+
+    private static void writeString(String s, ByteArrayOutputStream out) {
+        out.write(s.length());
+        out.write(s.getBytes(), 0, s.length());
+    }
+}
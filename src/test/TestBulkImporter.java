@@ -0,0 +1,150 @@
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.BulkImporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBulkImporter {
+    private Path directory;
+    private List<Task> tasks;
+    private List<BulkImporter.Progress> progress;
+    private List<List<Task>> saved;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        directory = Files.createTempDirectory("bulk-import");
+        tasks = new ArrayList<>();
+        progress = new ArrayList<>();
+        saved = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        File[] files = directory.toFile().listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testBatchesReportProgressAndSaveOnceAtTheEnd() {
+        List<Task> source = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            source.add(new Task("Task " + i));
+        }
+        BulkImporter.Progress done = importer(3).importTasks(source.iterator());
+        assertEquals(Arrays.asList(3, 6, 7, 7), readCounts());
+        for (int i = 0; i < 3; i++) {
+            assertFalse(progress.get(i).isDone());
+        }
+        assertSame(done, progress.get(3));
+        assertTrue(done.isDone());
+        assertEquals(7, done.getImported());
+        assertEquals(source, tasks);
+        assertEquals(1, saved.size());
+        assertSame(tasks, saved.get(0));
+    }
+
+    @Test
+    public void testDuplicatesOfListAndOfEarlierTasksAreLeftOut() {
+        tasks.add(new Task("Buy milk ## errands"));
+        Task duplicate = new Task("Buy milk ## errands");
+        List<Task> source = Arrays.asList(duplicate, new Task("Walk dog"), new Task("Walk dog"),
+                new Task("Walk dog ## urgent"));
+        BulkImporter.Progress done = importer(2).importTasks(source.iterator());
+        assertEquals(4, done.getRead());
+        assertEquals(2, done.getImported());
+        assertEquals(2, done.getDuplicates());
+        assertEquals(3, tasks.size());
+        assertSame(source.get(1), tasks.get(1));
+        assertSame(source.get(3), tasks.get(2));
+        assertTrue(duplicate.getTags().isEmpty());
+        assertTrue(tasks.get(0).containsTag("errands"));
+    }
+
+    @Test
+    public void testEmptySourceIsSavedAndReportedDone() {
+        BulkImporter.Progress done = importer(10).importTasks(new ArrayList<Task>().iterator());
+        assertEquals(1, progress.size());
+        assertTrue(done.isDone());
+        assertEquals(0, done.getRead());
+        assertEquals(1, saved.size());
+    }
+
+    @Test
+    public void testImportCsvCountsSkippedRows() throws IOException {
+        File csv = write("tasks.csv", "Description,Tags,Status\r\n"
+                + "\"Read, then summarize\",school;reading,UP_NEXT\r\n"
+                + "Bad status,,LATER\r\n"
+                + "\r\n"
+                + "Plain,,\r\n");
+        BulkImporter.Progress done = importer(BulkImporter.DEFAULT_BATCH_SIZE).importFile(csv);
+        assertEquals(2, done.getImported());
+        assertEquals(1, done.getSkipped());
+        assertEquals("Read, then summarize", tasks.get(0).getDescription());
+        assertTrue(tasks.get(0).containsTag("reading"));
+        assertEquals(1, saved.size());
+    }
+
+    @Test
+    public void testImportJsonAndNdjson() throws IOException {
+        String one = "{\"description\":\"one\",\"tags\":[],\"due-date\":null,"
+                + "\"priority\":{\"important\":false,\"urgent\":false},\"status\":\"TODO\"}";
+        String two = one.replace("one", "two");
+        File json = write("tasks.json", "[" + one + ",7," + two + "]");
+        File ndjson = write("tasks.ndjson", one + "\nnot json\n" + two.replace("two", "three") + "\n");
+        BulkImporter importer = importer(1);
+        BulkImporter.Progress fromJson = importer.importFile(json);
+        assertEquals(2, fromJson.getImported());
+        assertEquals(1, fromJson.getSkipped());
+        BulkImporter.Progress fromNdjson = importer.importFile(ndjson);
+        assertEquals(1, fromNdjson.getImported());
+        assertEquals(1, fromNdjson.getDuplicates());
+        assertEquals(1, fromNdjson.getSkipped());
+        assertEquals(3, tasks.size());
+        assertEquals(2, saved.size());
+    }
+
+    @Test
+    public void testCsvWithoutDescriptionColumnIsRejected() throws IOException {
+        File csv = write("tasks.csv", "Title,Tags\r\nBuy milk,errands\r\n");
+        try {
+            importer(10).importFile(csv);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertTrue(tasks.isEmpty());
+        assertTrue(saved.isEmpty());
+    }
+
+    private BulkImporter importer(int batchSize) {
+        return new BulkImporter(tasks, batchSize, progress::add, saved::add);
+    }
+
+    private List<Integer> readCounts() {
+        List<Integer> counts = new ArrayList<>();
+        for (BulkImporter.Progress p : progress) {
+            counts.add(p.getRead());
+        }
+        return counts;
+    }
+
+    private File write(String name, String contents) throws IOException {
+        Path path = directory.resolve(name);
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+        return path.toFile();
+    }
+}
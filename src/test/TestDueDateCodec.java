@@ -0,0 +1,71 @@
+import model.DueDate;
+import org.junit.jupiter.api.Test;
+import persistence.DueDateCodec;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// DueDate(Date) keeps the milliseconds of the current time rather than those of the date it is given,
+// so due dates are compared to the minute, which is all the codec stores
+public class TestDueDateCodec {
+
+    @Test
+    public void testNoDueDate() {
+        assertEquals(DueDateCodec.NO_DUE_DATE, DueDateCodec.toEpochMinutes(null));
+        assertNull(DueDateCodec.fromEpochMinutes(DueDateCodec.NO_DUE_DATE));
+    }
+
+    @Test
+    public void testEpochMinutesRoundTrip() {
+        long[] minutes = {0, 1, -1, 27_000_000, -27_000_000, Integer.MAX_VALUE, -500_000_000};
+        for (long m : minutes) {
+            DueDate dueDate = DueDateCodec.fromEpochMinutes(m);
+            assertEquals(m, Math.floorDiv(dueDate.getDate().getTime(), 60_000L));
+            assertEquals(m, DueDateCodec.toEpochMinutes(dueDate));
+        }
+    }
+
+    @Test
+    public void testEpochMinutesRoundDownToTheMinute() {
+        assertEquals(2, DueDateCodec.toEpochMinutes(new DueDate(new Date(179_999))));
+        assertEquals(-1, DueDateCodec.toEpochMinutes(new DueDate(new Date(-1))));
+        assertEquals(-2, DueDateCodec.toEpochMinutes(new DueDate(new Date(-60_001))));
+    }
+
+    @Test
+    public void testFieldsMatchCalendar() {
+        int[][] fields = {
+            {2019, 0, 1, 0, 0},
+            {2019, 6, 15, 13, 45},
+            {2020, 1, 29, 23, 59},
+            {1969, 11, 31, 23, 59},
+            {2019, 12, 1, 9, 0},
+            {2019, 1, 31, 25, 61},
+        };
+        for (int[] f : fields) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.clear();
+            calendar.set(f[0], f[1], f[2], f[3], f[4]);
+            DueDate dueDate = DueDateCodec.fromFields(f[0], f[1], f[2], f[3], f[4]);
+            assertEquals(calendar.getTimeInMillis() / 60_000L, DueDateCodec.toEpochMinutes(dueDate));
+        }
+    }
+
+    @Test
+    public void testLocalDateTimeMatchesCalendar() {
+        DueDate dueDate = DueDateCodec.fromFields(2019, 6, 15, 13, 45);
+        LocalDateTime local = DueDateCodec.toLocalDateTime(dueDate).truncatedTo(ChronoUnit.MINUTES);
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(dueDate.getDate());
+        assertEquals(calendar.get(Calendar.YEAR), local.getYear());
+        assertEquals(calendar.get(Calendar.MONTH) + 1, local.getMonthValue());
+        assertEquals(calendar.get(Calendar.DAY_OF_MONTH), local.getDayOfMonth());
+        assertEquals(calendar.get(Calendar.HOUR_OF_DAY), local.getHour());
+        assertEquals(calendar.get(Calendar.MINUTE), local.getMinute());
+        assertEquals(LocalDateTime.of(2019, 7, 15, 13, 45), local);
+    }
+}
@@ -0,0 +1,134 @@
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import parsers.ParseReport;
+import parsers.TaskParser;
+import persistence.BinaryTaskWriter;
+import utility.JsonFileIO;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestParseReport {
+    private Path directory;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        directory = Files.createTempDirectory("parse-report");
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        File[] files = directory.toFile().listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testLosslessParse() {
+        ParseReport report = new TaskParser().parseWithDiagnostics("[" + task("one") + "," + task("two") + "]");
+        assertEquals(2, report.getRecordCount());
+        assertEquals(2, report.getParsedCount());
+        assertEquals(0, report.getSkippedCount());
+        assertTrue(report.getDiagnostics().isEmpty());
+        assertFalse(report.isTruncated());
+        assertTrue(report.isLossless());
+    }
+
+    @Test
+    public void testSkippedElementsHaveIndexByteOffsetAndField() {
+        String first = "[" + task("caf\u00e9 \ud83d\ude00") + ", ";
+        String badStatus = task("bad status").replace("UP_NEXT", "LATER");
+        String input = first + "1, " + badStatus + "," + task("two") + "]";
+        ParseReport report = new TaskParser().parseWithDiagnostics(input);
+        assertEquals(4, report.getRecordCount());
+        assertEquals(2, report.getParsedCount());
+        assertEquals(2, report.getSkippedCount());
+        assertEquals("two", report.getTasks().get(1).getDescription());
+        ParseReport.Diagnostic notAnObject = report.getDiagnostics().get(0);
+        assertEquals(1, notAnObject.getIndex());
+        assertEquals(utf8Length(first), notAnObject.getOffset());
+        assertNull(notAnObject.getField());
+        ParseReport.Diagnostic invalidStatus = report.getDiagnostics().get(1);
+        assertEquals(2, invalidStatus.getIndex());
+        assertEquals(utf8Length(first + "1, "), invalidStatus.getOffset());
+        assertEquals("status", invalidStatus.getField());
+        assertFalse(report.isTruncated());
+        assertFalse(report.isLossless());
+    }
+
+    @Test
+    public void testCorruptLinesAreReportedAndParsingGoesOn() {
+        String first = task("one") + "\n\n";
+        String corrupt = "{\"description\":\"torn\n";
+        String input = first + corrupt + task("two") + "\n";
+        ParseReport report = new TaskParser().parseWithDiagnostics(input);
+        assertEquals(3, report.getRecordCount());
+        assertEquals(2, report.getParsedCount());
+        assertEquals(1, report.getSkippedCount());
+        assertEquals(1, report.getDiagnostics().get(0).getIndex());
+        assertEquals(utf8Length(first), report.getDiagnostics().get(0).getOffset());
+        assertFalse(report.isTruncated());
+        assertFalse(report.isLossless());
+    }
+
+    @Test
+    public void testTruncatedArrayKeepsTasksBeforeTheCut() {
+        String input = "[" + task("one") + "," + task("two") + ",{\"description\":\"cut";
+        ParseReport report = new TaskParser().parseWithDiagnostics(input);
+        assertEquals(2, report.getParsedCount());
+        assertEquals(1, report.getSkippedCount());
+        assertEquals("description", report.getDiagnostics().get(0).getField());
+        assertTrue(report.isTruncated());
+        assertFalse(report.isLossless());
+    }
+
+    @Test
+    public void testDiagnoseFileInEveryFormat() throws IOException {
+        List<Task> tasks = Arrays.asList(new Task("one ## home; urgent"), new Task("two ## done"));
+        File binary = directory.resolve("tasks.bin").toFile();
+        try (OutputStream out = new FileOutputStream(binary)) {
+            BinaryTaskWriter.write(tasks, out);
+        }
+        File json = write("tasks.json", "[" + task("one") + ",null," + task("two") + "]");
+        File ndjson = write("tasks.ndjson", task("one") + "\nnull\n" + task("two") + "\n");
+        assertEquals(tasks, JsonFileIO.diagnose(binary).getTasks());
+        assertTrue(JsonFileIO.diagnose(binary).isLossless());
+        assertSkippedSecondRecord(JsonFileIO.diagnose(json), utf8Length("[" + task("one") + ","));
+        assertSkippedSecondRecord(JsonFileIO.diagnose(ndjson), utf8Length(task("one") + "\n"));
+    }
+
+    private static void assertSkippedSecondRecord(ParseReport report, long offset) {
+        assertEquals(3, report.getRecordCount());
+        assertEquals(2, report.getParsedCount());
+        assertEquals(1, report.getDiagnostics().get(0).getIndex());
+        assertEquals(offset, report.getDiagnostics().get(0).getOffset());
+    }
+
+    private File write(String name, String contents) throws IOException {
+        Path path = directory.resolve(name);
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+        return path.toFile();
+    }
+
+    private static int utf8Length(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String task(String description) {
+        return "{\"description\":\"" + description + "\",\"tags\":[{\"name\":\"cpsc210\"}],\"due-date\":null,"
+                + "\"priority\":{\"important\":true,\"urgent\":false},\"status\":\"UP_NEXT\"}";
+    }
+}
@@ -1,14 +1,25 @@
 import model.*;
+import model.exceptions.CyclicProjectException;
 import model.exceptions.EmptyStringException;
 import model.exceptions.InvalidProgressException;
 import model.exceptions.NullArgumentException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import parsers.ProjectTreeParser;
+import persistence.ProjectTreeWriter;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -477,5 +488,259 @@ public class TestProject {
         assertFalse(projectIter.hasNext());
     }
 
+    @Test
+    void testTotalsFollowChangesBelow() {
+        Project sub = new Project("subproject");
+        Project subSub = new Project("subsubproject");
+        p1.add(testTask);
+        p1.add(sub);
+        sub.add(testTask2);
+        sub.add(subSub);
+        subSub.add(testTask3);
+        testTask3.setEstimatedTimeToComplete(6);
+        testTask3.setProgress(80);
+        assertEquals(80, subSub.getProgress());
+        assertEquals(40, sub.getProgress());
+        assertEquals(20, p1.getProgress());
+        assertEquals(6, p1.getEstimatedTimeToComplete());
+        testTask.setProgress(100);
+        testTask2.setEstimatedTimeToComplete(4);
+        assertEquals(70, p1.getProgress());
+        assertEquals(10, p1.getEstimatedTimeToComplete());
+        sub.remove(subSub);
+        testTask3.setProgress(100);
+        assertEquals(0, sub.getProgress());
+        assertEquals(50, p1.getProgress());
+        assertEquals(4, p1.getEstimatedTimeToComplete());
+    }
+
+    @Test
+    void testProjectTreeExpandsOnFirstUse() throws IOException {
+        Project sub = new Project("subproject");
+        sub.add(testTask3);
+        p1.add(testTask);
+        p1.add(sub);
+        p1.add(testTask2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProjectTreeWriter.write(Collections.singletonList(p1), out);
+        List<Todo> read = new ArrayList<>();
+        new ProjectTreeParser().parse(ByteBuffer.wrap(out.toByteArray()), read::add);
+        assertEquals(1, read.size());
+        LazyProject lazy = (LazyProject) read.get(0);
+        assertEquals(p1, lazy);
+        assertFalse(lazy.isExpanded());
+        assertFalse(lazy.isDirty());
+        assertEquals(3, lazy.getNumberOfTasks());
+        assertTrue(lazy.isExpanded());
+        List<Todo> children = new ArrayList<>(lazy.getChildren());
+        assertEquals(testTask, children.get(0));
+        assertEquals(testTask2, children.get(2));
+        LazyProject lazySub = (LazyProject) children.get(1);
+        assertFalse(lazySub.isExpanded());
+        assertTrue(lazySub.contains(testTask3));
+    }
+
+    @Test
+    void testUnterminatedSubtreeIsCopiedAsWholeLines() throws IOException {
+        p1.add(testTask);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProjectTreeWriter.write(Collections.singletonList(p1), out);
+        String unterminated = new String(out.toByteArray(), "UTF-8").trim();
+        List<Todo> read = new ArrayList<>();
+        new ProjectTreeParser().parse(ByteBuffer.wrap(unterminated.getBytes("UTF-8")), read::add);
+        Project other = new Project("other");
+        other.add(testTask2);
+        List<Todo> reread = writeAndParse(Arrays.asList((Project) read.get(0), other));
+        assertEquals(2, reread.size());
+        assertEquals(Collections.singletonList(testTask), new ArrayList<>(((Project) reread.get(0)).getChildren()));
+        assertEquals(Collections.singletonList(testTask2), new ArrayList<>(((Project) reread.get(1)).getChildren()));
+    }
+
+    @Test
+    void testMalformedProjectLineFlattensSubtreeIntoParent() throws IOException {
+        Project sub = new Project("subproject");
+        sub.add(testTask2);
+        sub.add(testTask3);
+        p1.add(testTask);
+        p1.add(sub);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProjectTreeWriter.write(Collections.singletonList(p1), out);
+        String tree = new String(out.toByteArray(), "UTF-8").replace("{\"project\":\"subproject\"",
+                "{\"project\":null");
+        List<Todo> read = new ArrayList<>();
+        ProjectTreeParser parser = new ProjectTreeParser();
+        parser.parse(ByteBuffer.wrap(tree.getBytes("UTF-8")), read::add);
+        assertEquals(1, read.size());
+        assertEquals(0, parser.getSkippedCount());
+        Project lazy = (Project) read.get(0);
+        assertEquals(Arrays.asList(testTask, testTask2, testTask3), new ArrayList<>(lazy.getChildren()));
+        List<Todo> reread = writeAndParse(Collections.singletonList(lazy));
+        assertEquals(1, reread.size());
+        assertEquals(Arrays.asList(testTask, testTask2, testTask3),
+                new ArrayList<>(((Project) reread.get(0)).getChildren()));
+    }
+
+    // EFFECTS: returns the todos at the top of the trees of projects, once written and parsed again
+    private List<Todo> writeAndParse(List<Project> projects) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProjectTreeWriter.write(projects, out);
+        List<Todo> read = new ArrayList<>();
+        new ProjectTreeParser().parse(ByteBuffer.wrap(out.toByteArray()), read::add);
+        return read;
+    }
+
+    @Test
+    void testPriorityChangedInPlaceLeavesTaskInProjectUnchanged() {
+        p1.add(testTask);
+        p1.add(testTask2);
+        testTask.getPriority().setUrgent(true);
+        assertFalse(testTask.getPriority().isUrgent());
+        Priority urgent = new Priority(4);
+        urgent.setUrgent(true);
+        testTask2.setPriority(urgent);
+        urgent.setImportant(true);
+        assertFalse(testTask2.getPriority().isImportant());
+        testTask.setImportant(true);
+        assertTrue(testTask.getPriority().isImportant());
+        assertTrue(p1.contains(testTask));
+        assertTrue(p1.contains(testTask2));
+        p1.remove(testTask);
+        p1.remove(testTask2);
+        assertFalse(p1.contains(testTask));
+        assertFalse(p1.contains(testTask2));
+        assertEquals(0, p1.getNumberOfTasks());
+    }
+
+    @Test
+    void testPriorityOrderFollowsPriorityChanges() {
+        Task t1 = new Task("t1");
+        Task t2 = new Task("t2");
+        Task t3 = new Task("t3");
+        Task t4 = new Task("t4");
+        p1.add(t1);
+        p1.add(t2);
+        p1.add(t3);
+        p1.add(t4);
+        t3.setPriority(new Priority(1));
+        assertEquals(Arrays.asList(t3, t1, t2, t4), inPriorityOrder(p1));
+        t4.setUrgent(true);
+        t1.setUrgent(true);
+        assertEquals(Arrays.asList(t3, t1, t4, t2), inPriorityOrder(p1));
+        t3.setPriority(new Priority(4));
+        assertEquals(Arrays.asList(t1, t4, t2, t3), inPriorityOrder(p1));
+        t2.setImportant(true);
+        assertEquals(Arrays.asList(t2, t1, t4, t3), inPriorityOrder(p1));
+        assertEquals(Arrays.asList(t1, t2, t3, t4), new ArrayList<>(p1.getChildren()));
+    }
+
+    @Test
+    void testPriorityOrderAfterRemovals() {
+        Task t1 = new Task("t1");
+        Task t2 = new Task("t2");
+        Task t3 = new Task("t3");
+        Task t4 = new Task("t4");
+        t1.setUrgent(true);
+        t4.setUrgent(true);
+        p1.add(t1);
+        p1.add(t2);
+        p1.add(t3);
+        p1.add(t4);
+        p1.remove(t1);
+        p1.remove(t2);
+        assertEquals(Arrays.asList(t4, t3), inPriorityOrder(p1));
+        p1.add(t1);
+        assertEquals(Arrays.asList(t4, t1, t3), inPriorityOrder(p1));
+        p1.remove(t4);
+        p1.remove(t3);
+        assertEquals(Collections.singletonList(t1), inPriorityOrder(p1));
+        p1.remove(t1);
+        assertEquals(Collections.emptyList(), inPriorityOrder(p1));
+        p1.add(t2);
+        assertEquals(Collections.singletonList(t2), inPriorityOrder(p1));
+        assertEquals(Collections.singletonList(t2), new ArrayList<>(p1.getChildren()));
+    }
+
+    // EFFECTS: returns the children of project in the order its iterator walks them, by priority
+    private List<Todo> inPriorityOrder(Project project) {
+        List<Todo> todos = new ArrayList<>();
+        for (Todo todo : project) {
+            todos.add(todo);
+        }
+        return todos;
+    }
+
+    @Test
+    void testDeepTreeWalkedWithoutRecursion() {
+        Project sub = new Project("subproject");
+        p1.add(sub);
+        Project bottom = sub;
+        for (int i = 0; i < 100000; i++) {
+            Project next = new Project("level " + i);
+            bottom.add(next);
+            bottom = next;
+        }
+        Project leafProject = bottom;
+        leafProject.add(testTask);
+        testTask.setEstimatedTimeToComplete(3);
+        assertEquals(3, p1.getEstimatedTimeToComplete());
+        assertEquals(100002, p1.descendants().count());
+        assertEquals(testTask, p1.descendants().reduce((first, second) -> second).get());
+        assertThrows(CyclicProjectException.class, () -> leafProject.add(p1));
+        assertFalse(leafProject.contains(p1));
+    }
 
+    @Test
+    void testVisitorAndDescendantsStopAtDepth() {
+        Project sub = new Project("subproject");
+        Project subSub = new Project("subsubproject");
+        p1.add(testTask);
+        p1.add(sub);
+        sub.add(subSub);
+        sub.add(testTask2);
+        subSub.add(testTask3);
+        List<Todo> visited = new ArrayList<>();
+        p1.accept(new TodoVisitor() {
+            @Override
+            public boolean visitProject(Project project, int depth) {
+                visited.add(project);
+                return project != subSub;
+            }
+
+            @Override
+            public void visitTask(Task task, int depth) {
+                visited.add(task);
+            }
+        });
+        assertEquals(Arrays.asList(p1, testTask, sub, subSub, testTask2), visited);
+        assertEquals(Arrays.asList(testTask, sub), p1.descendants(1).collect(Collectors.toList()));
+        assertThrows(CyclicProjectException.class, () -> subSub.add(sub));
+    }
+
+    @Test
+    void testSummaryCountsEachTaskOnce() {
+        Project sub = new Project("subproject");
+        Project other = new Project("other project");
+        p1.add(testTask);
+        p1.add(sub);
+        sub.add(testTask2);
+        other.add(testTask2);
+        other.add(testTask3);
+        testTask.setEstimatedTimeToComplete(2);
+        testTask2.setEstimatedTimeToComplete(3);
+        testTask2.setProgress(60);
+        testTask2.setStatus(Status.IN_PROGRESS);
+        testTask3.setStatus(Status.DONE);
+        testTask3.setProgress(100);
+        testTask.setDueDate(new DueDate(new Date(System.currentTimeMillis() - 86400000L)));
+        testTask3.setDueDate(new DueDate(new Date(System.currentTimeMillis() - 86400000L)));
+        ProjectSummary summary = ProjectSummary.of(Arrays.asList(p1, other, sub));
+        assertEquals(3, summary.getTaskCount());
+        assertEquals(3, summary.getProjectCount());
+        assertEquals(5, summary.getEstimatedTimeToComplete());
+        assertEquals(53, summary.getProgress());
+        assertEquals(1, summary.getTaskCount(Status.TODO));
+        assertEquals(1, summary.getTaskCount(Status.IN_PROGRESS));
+        assertEquals(1, summary.getTaskCount(Status.DONE));
+        assertEquals(1, summary.getOverdueCount());
+    }
 }
\ No newline at end of file
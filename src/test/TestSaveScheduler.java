@@ -0,0 +1,195 @@
+import model.Task;
+import model.TaskList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.JsonFileIO;
+import utility.SaveScheduler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaveScheduler {
+    private static final long QUIET_PERIOD_MILLIS = 50;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private ExecutorService owner;
+    private TaskList tasks;
+    private List<String> serializedOn;
+    private List<String> writtenOn;
+    private AtomicInteger failuresLeft;
+
+    @BeforeEach
+    public void setUp() {
+        owner = Executors.newSingleThreadExecutor(r -> new Thread(r, "owner"));
+        tasks = new TaskList();
+        tasks.add(new Task("Write report"));
+        tasks.markClean();
+        serializedOn = Collections.synchronizedList(new ArrayList<>());
+        writtenOn = Collections.synchronizedList(new ArrayList<>());
+        failuresLeft = new AtomicInteger(0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        owner.shutdownNow();
+    }
+
+    @Test
+    public void testBurstOfRequestsIsSavedOnce() throws InterruptedException {
+        SaveScheduler scheduler = newScheduler(QUIET_PERIOD_MILLIS);
+        tasks.add(new Task("Read paper"));
+        for (int i = 0; i < 10; i++) {
+            scheduler.requestSave();
+        }
+        waitFor(() -> scheduler.getSaveCount() == 1);
+        Thread.sleep(3 * QUIET_PERIOD_MILLIS);
+        assertEquals(1, scheduler.getSaveCount());
+        assertEquals(1, serializedOn.size());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    public void testTasksAreSerializedOnOwnerThreadAndWrittenInBackground() throws InterruptedException {
+        SaveScheduler scheduler = newScheduler(QUIET_PERIOD_MILLIS);
+        tasks.get(0).setDescription("Write summary");
+        scheduler.requestSave();
+        waitFor(() -> scheduler.getSaveCount() == 1);
+        assertEquals(Collections.singletonList("owner"), serializedOn);
+        assertEquals(Collections.singletonList("save-scheduler"), writtenOn);
+        assertFalse(tasks.isDirty());
+    }
+
+    @Test
+    public void testFailedSaveIsTriedAgain() throws InterruptedException {
+        failuresLeft.set(1);
+        SaveScheduler scheduler = newScheduler(QUIET_PERIOD_MILLIS);
+        tasks.add(new Task("Read paper"));
+        scheduler.requestSave();
+        waitFor(() -> scheduler.getSaveCount() == 1);
+        assertEquals(2, serializedOn.size());
+        assertEquals(2, writtenOn.size());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    public void testSubmittedSaveIsWrittenInBackground() throws InterruptedException {
+        SaveScheduler scheduler = newScheduler(QUIET_PERIOD_MILLIS);
+        scheduler.submit(() -> writtenOn.add(Thread.currentThread().getName()));
+        waitFor(() -> scheduler.getSaveCount() == 1);
+        assertEquals(Collections.singletonList("save-scheduler"), writtenOn);
+        assertTrue(serializedOn.isEmpty());
+    }
+
+    @Test
+    public void testFailedSubmittedSaveRequestsSaveOfAllTasks() throws InterruptedException {
+        SaveScheduler scheduler = newScheduler(QUIET_PERIOD_MILLIS);
+        scheduler.submit(() -> {
+            throw new IOException("disk full");
+        });
+        waitFor(() -> scheduler.getSaveCount() == 1);
+        assertEquals(Collections.singletonList("owner"), serializedOn);
+        assertFalse(tasks.isDirty());
+    }
+
+    @Test
+    public void testFailedSaveOfOtherDataRunsItsOwnFailureHandler() throws InterruptedException {
+        SaveScheduler scheduler = newScheduler(QUIET_PERIOD_MILLIS);
+        List<String> failedOn = Collections.synchronizedList(new ArrayList<>());
+        scheduler.submit(() -> {
+            throw new IOException("disk full");
+        }, "projects", () -> failedOn.add(Thread.currentThread().getName()));
+        waitFor(() -> failedOn.size() == 1);
+        Thread.sleep(3 * QUIET_PERIOD_MILLIS);
+        assertEquals(Collections.singletonList("save-scheduler"), failedOn);
+        assertTrue(serializedOn.isEmpty());
+        assertFalse(tasks.isDirty());
+    }
+
+    @Test
+    public void testRequestWithoutChangesWritesNothing() throws InterruptedException {
+        SaveScheduler scheduler = newScheduler(QUIET_PERIOD_MILLIS);
+        scheduler.requestSave();
+        waitFor(() -> serializedOn.size() == 1);
+        Thread.sleep(3 * QUIET_PERIOD_MILLIS);
+        assertTrue(writtenOn.isEmpty());
+        assertEquals(0, scheduler.getSaveCount());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    public void testShutdownSavesPendingRequests() throws Exception {
+        SaveScheduler scheduler = newScheduler(TimeUnit.HOURS.toMillis(1));
+        tasks.add(new Task("Read paper"));
+        scheduler.requestSave();
+        scheduler.requestSave();
+        owner.submit(scheduler::shutdown).get();
+        assertEquals(1, scheduler.getSaveCount());
+        assertEquals(Collections.singletonList("owner"), serializedOn);
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    public void testFailedSaveOnShutdownLeavesTasksDirty() throws Exception {
+        failuresLeft.set(1);
+        SaveScheduler scheduler = newScheduler(TimeUnit.HOURS.toMillis(1));
+        tasks.add(new Task("Read paper"));
+        scheduler.requestSave();
+        owner.submit(scheduler::shutdown).get();
+        assertEquals(0, scheduler.getSaveCount());
+        assertEquals(1, writtenOn.size());
+        assertTrue(tasks.isDirty());
+    }
+
+    @Test
+    public void testSavesArePostponedWhileTasksAreLoading() throws InterruptedException {
+        List<List<Task>> loaded = Collections.synchronizedList(new ArrayList<>());
+        SaveScheduler scheduler = new SaveScheduler(() -> loaded.isEmpty() ? null : loaded.get(0),
+                this::serialize, QUIET_PERIOD_MILLIS, owner);
+        scheduler.requestSave();
+        Thread.sleep(3 * QUIET_PERIOD_MILLIS);
+        assertEquals(0, scheduler.getSaveCount());
+        assertEquals(1, scheduler.getQueueDepth());
+        tasks.add(new Task("Read paper"));
+        loaded.add(tasks);
+        waitFor(() -> scheduler.getSaveCount() == 1);
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    private SaveScheduler newScheduler(long quietPeriodMillis) {
+        return new SaveScheduler(() -> tasks, this::serialize, quietPeriodMillis, owner);
+    }
+
+    // stands in for JsonFileIO.prepareSave: returns null if the tasks have not changed, and otherwise marks
+    // them saved and returns a save that fails while failuresLeft is positive
+    private JsonFileIO.Save serialize(List<Task> taskList) {
+        serializedOn.add(Thread.currentThread().getName());
+        if (!((TaskList) taskList).isDirty()) {
+            return null;
+        }
+        ((TaskList) taskList).markClean();
+        return () -> {
+            writtenOn.add(Thread.currentThread().getName());
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IOException("disk full");
+            }
+        };
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+}
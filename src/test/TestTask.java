@@ -5,8 +5,15 @@ import model.exceptions.NegativeInputException;
 import model.exceptions.NullArgumentException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import parsers.TaskJsonDecoder;
+import utility.NdjsonTaskFile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Set;
 
@@ -562,16 +569,159 @@ public class TestTask {
         }
     }
 
+    @Test
+    public void testDirtyTracking(){
+        Task t1 = new Task("t1");
+        assertTrue(t1.isDirty());
+        t1.markClean();
+        assertFalse(t1.isDirty());
+        t1.setStatus(Status.DONE);
+        assertTrue(t1.isDirty());
+        t1.markClean();
+        t1.addTag("cpsc210");
+        assertTrue(t1.isDirty());
+        t1.markClean();
+        t1.addTag("cpsc210");
+        assertFalse(t1.isDirty());
+        t1.removeTag("cpsc210");
+        assertTrue(t1.isDirty());
+        t1.markClean();
+        t1.setPriority(new Priority(1));
+        assertTrue(t1.isDirty());
+    }
 
+    @Test
+    public void testTaskListDirtyTracking(){
+        Task t1 = new Task("t1");
+        TaskList tasks = new TaskList();
+        tasks.add(t1);
+        assertTrue(tasks.isStructurallyModified());
+        tasks.markClean();
+        assertFalse(tasks.isDirty());
+        t1.setDueDate(new DueDate());
+        assertTrue(tasks.isDirty());
+        assertFalse(tasks.isStructurallyModified());
+        assertEquals(1, tasks.getDirtyTasks().size());
+        tasks.markClean();
+        tasks.remove(t1);
+        assertTrue(tasks.isDirty());
+    }
+
+    @Test
+    public void testTagsAreShared(){
+        Task t1 = new Task("t1");
+        Task t2 = new Task("t1");
+        t1.addTag("shared");
+        t2.addTag("shared");
+        Tag tag = TagRegistry.lookup("shared");
+        assertSame(tag, t1.getTags().iterator().next());
+        assertSame(tag, t2.getTags().iterator().next());
+        assertEquals(2, TagRegistry.getTasks("shared").size());
+        t1.removeTag("shared");
+        assertFalse(tag.containsTask(t1));
+        assertTrue(tag.containsTask(t2));
+        assertEquals(0, TagRegistry.getTasks("not used").size());
+    }
 
+    @Test
+    public void testTagTasksAreACopy(){
+        Task t1 = new Task("t1");
+        t1.addTag("copied");
+        Set<Task> tasks = TagRegistry.getTasks("copied");
+        Task t2 = new Task("t2");
+        t2.addTag("copied");
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.contains(t1));
+        assertEquals(2, TagRegistry.getTasks("copied").size());
+        try {
+            tasks.add(t2);
+            fail("Should have thrown UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
 
+    @Test
+    public void testDiscardedTaskIsDroppedFromTag() throws InterruptedException {
+        Task kept = new Task("kept");
+        kept.addTag("discarded");
+        Tag tag = TagRegistry.lookup("discarded");
+        addTaggedTask("discarded");
+        assertEquals(2, tag.getTasks().size());
+        for (int i = 0; i < 100 && tag.getTasks().size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, tag.getTasks().size());
+        assertTrue(tag.containsTask(kept));
+    }
 
+    // EFFECTS: creates a task tagged with tagName that is not referred to once this returns
+    private void addTaggedTask(String tagName) {
+        new Task("discarded").addTag(tagName);
+    }
 
+    @Test
+    public void testSetSameDescription(){
+        Task t1 = new Task("describing ## urgent; cpsc210");
+        t1.markClean();
+        t1.setDescription(t1.getDescription());
+        assertFalse(t1.isDirty());
+        Task t2 = new Task("describing ## urgent; cpsc210");
+        assertEquals(t1.getDescription(), t2.getDescription());
+        assertTrue(t2.getPriority().isUrgent());
+        assertTrue(t2.containsTag("cpsc210"));
+    }
 
+    @Test
+    public void testLazyTaskDecodesOnFirstUse(){
+        int[] decodes = {0};
+        Task lazy = new LazyTask(ByteBuffer.allocate(0), (record, task) -> {
+            decodes[0]++;
+            task.setDescription("decoded ## important; lazy");
+            return true;
+        });
+        assertFalse(lazy.isDirty());
+        assertEquals(0, decodes[0]);
+        assertEquals("decoded ", lazy.getDescription());
+        assertTrue(lazy.getPriority().isImportant());
+        assertTrue(lazy.containsTag("lazy"));
+        assertFalse(lazy.isDirty());
+        assertEquals(new Task("decoded ## important; lazy"), lazy);
+        assertEquals(1, decodes[0]);
+        Task unreadable = new LazyTask(ByteBuffer.allocate(0), (record, task) -> false);
+        assertEquals(LazyTask.UNREADABLE, unreadable.getDescription());
+    }
 
+    @Test
+    public void testUnchangedLazyTaskIsSavedAsRead() throws IOException {
+        String line = "{ \"description\":\"as read\",\"tags\":[],\"due-date\":null,"
+                + "\"priority\":{\"important\":true,\"urgent\":false},\"status\":\"TODO\"}";
+        LazyTask undecoded = TaskJsonDecoder.lazyTask(utf8(line));
+        assertEquals(line + "\n", ndjson(undecoded));
+        assertFalse(undecoded.isDecoded());
+        LazyTask decoded = TaskJsonDecoder.lazyTask(utf8(line));
+        assertEquals("as read", decoded.getDescription());
+        assertEquals(line.replace("{ ", "{") + "\n", ndjson(decoded));
+    }
 
+    @Test
+    public void testUnreadableLazyTaskIsSavedAsReadUntilChanged() throws IOException {
+        String line = "{\"description\": cut short";
+        LazyTask unreadable = TaskJsonDecoder.lazyTask(utf8(line));
+        assertEquals(LazyTask.UNREADABLE, unreadable.getDescription());
+        assertEquals(line + "\n", ndjson(unreadable));
+        unreadable.setDescription("rewritten");
+        assertTrue(ndjson(unreadable).startsWith("{\"description\":\"rewritten\""));
+    }
 
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
 
-
-
-}
\ No newline at end of file
+    private static String ndjson(Task task) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonTaskFile.writeLines(Collections.singletonList(task), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import parsers.TaskJsonDecoder;
+import persistence.Jsonifier;
+import utility.NdjsonTaskFile;
+import utility.TaskBatcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskBatcher {
+    private List<List<Task>> batches;
+    private TaskBatcher batcher;
+
+    @BeforeEach
+    public void runBefore() {
+        batches = new ArrayList<>();
+        batcher = new TaskBatcher(2, 3, batches::add);
+    }
+
+    @Test
+    public void testFirstBatchIsSmallerThanTheRest() {
+        List<Task> tasks = tasks(10);
+        tasks.forEach(batcher);
+        assertEquals(Arrays.asList(2, 3, 3), sizes());
+        batcher.flush();
+        assertEquals(Arrays.asList(2, 3, 3, 2), sizes());
+        assertEquals(4, batcher.getBatchesHanded());
+        assertEquals(tasks, concatenated());
+    }
+
+    @Test
+    public void testBatchesHandedAreNotReused() {
+        tasks(5).forEach(batcher);
+        List<Task> first = batches.get(0);
+        List<Task> second = batches.get(1);
+        assertNotSame(first, second);
+        assertEquals(2, first.size());
+        assertEquals(3, second.size());
+        batcher.accept(new Task("more"));
+        batcher.flush();
+        assertEquals(3, second.size());
+        assertEquals(Collections.singletonList(new Task("more")), batches.get(2));
+    }
+
+    @Test
+    public void testFlushHandsNoEmptyBatch() {
+        batcher.flush();
+        assertTrue(batches.isEmpty());
+        tasks(5).forEach(batcher);
+        batcher.flush();
+        assertEquals(Arrays.asList(2, 3), sizes());
+        assertEquals(2, batcher.getBatchesHanded());
+    }
+
+    @Test
+    public void testBatchesTasksAsTheyAreDecoded() {
+        List<Task> tasks = tasks(7);
+        String json = Jsonifier.taskListToJson(tasks).toString();
+        new TaskJsonDecoder(new StringReader(json)).forEachRemaining(batcher);
+        batcher.flush();
+        assertEquals(Arrays.asList(2, 3, 2), sizes());
+        assertEquals(tasks, concatenated());
+    }
+
+    @Test
+    public void testBatchesNdjsonStreamAndSkipsCorruptLines() throws IOException {
+        List<Task> tasks = tasks(5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NdjsonTaskFile.writeLines(tasks, out);
+        out.write("{\"description\":\"torn\n".getBytes(StandardCharsets.UTF_8));
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertEquals(1, NdjsonTaskFile.read(in, batcher));
+        assertEquals(0, in.available());
+        batcher.flush();
+        assertEquals(Arrays.asList(2, 3), sizes());
+        assertEquals(tasks, concatenated());
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task("Task " + i));
+        }
+        return tasks;
+    }
+
+    private List<Integer> sizes() {
+        List<Integer> sizes = new ArrayList<>();
+        for (List<Task> batch : batches) {
+            sizes.add(batch.size());
+        }
+        return sizes;
+    }
+
+    private List<Task> concatenated() {
+        List<Task> all = new ArrayList<>();
+        batches.forEach(all::addAll);
+        return all;
+    }
+}
@@ -0,0 +1,208 @@
+import model.Status;
+import model.Task;
+import model.TaskList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinaryTaskWriter;
+import persistence.TaskJournal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskJournal {
+    private Path dir;
+    private File journalFile;
+    private File snapshotFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("task-journal");
+        journalFile = dir.resolve("tasks.journal").toFile();
+        snapshotFile = dir.resolve("tasks.json").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testMutationsSurviveReload() {
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile);
+        TaskList tasks = journal.load();
+        addTask(journal, tasks, new Task("write essay"));
+        addTask(journal, tasks, new Task("read chapter"));
+        Task task = tasks.get(1);
+        task.setStatus(Status.DONE);
+        journal.recordStatus(task);
+        task.addTag("cpsc210");
+        journal.recordTagAdded(task, "cpsc210");
+        tasks.remove(0);
+        journal.recordRemoved(0);
+        journal.close();
+
+        TaskList reloaded = reload();
+        assertEquals(1, reloaded.size());
+        assertEquals("read chapter", reloaded.get(0).getDescription());
+        assertEquals(Status.DONE, reloaded.get(0).getStatus());
+        assertTrue(reloaded.get(0).containsTag("cpsc210"));
+    }
+
+    @Test
+    public void testFieldRecordsFindTasksAfterRemovals() throws IOException {
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile);
+        TaskList tasks = journal.load();
+        for (String description : new String[] {"write essay", "read chapter", "buy milk", "walk dog"}) {
+            addTask(journal, tasks, new Task(description));
+        }
+        Task milk = tasks.get(2);
+        assertEquals(2, journal.indexOf(milk));
+        tasks.remove(0);
+        journal.recordRemoved(0);
+        assertEquals(1, journal.indexOf(milk));
+        milk.setStatus(Status.DONE);
+        journal.recordStatus(milk);
+        milk.markClean();
+        Task removed = tasks.remove(0);
+        journal.recordRemoved(0);
+        assertEquals(-1, journal.indexOf(removed));
+        assertEquals(0, journal.indexOf(milk));
+        journal.recordDirtyTasks();
+        journal.close();
+
+        assertFalse(new String(Files.readAllBytes(journalFile.toPath()), StandardCharsets.UTF_8).contains("put"));
+        TaskList reloaded = reload();
+        assertEquals(2, reloaded.size());
+        assertEquals("buy milk", reloaded.get(0).getDescription());
+        assertEquals(Status.DONE, reloaded.get(0).getStatus());
+        assertEquals(Status.TODO, reloaded.get(1).getStatus());
+    }
+
+    @Test
+    public void testMutationsAfterTornRecordSurviveReload() throws IOException {
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile);
+        TaskList tasks = journal.load();
+        addTask(journal, tasks, new Task("write essay"));
+        journal.close();
+        try (OutputStream out = new FileOutputStream(journalFile, true)) {
+            out.write("{\"op\":\"status\",\"i\":0,\"v\":\"DO".getBytes(StandardCharsets.UTF_8));
+        }
+
+        journal = new TaskJournal(journalFile, snapshotFile);
+        tasks = journal.load();
+        assertEquals(1, tasks.size());
+        assertEquals(Status.TODO, tasks.get(0).getStatus());
+        tasks.get(0).setStatus(Status.IN_PROGRESS);
+        journal.recordStatus(tasks.get(0));
+        addTask(journal, tasks, new Task("read chapter"));
+        journal.close();
+
+        TaskList reloaded = reload();
+        assertEquals(2, reloaded.size());
+        assertEquals(Status.IN_PROGRESS, reloaded.get(0).getStatus());
+        assertEquals("read chapter", reloaded.get(1).getDescription());
+    }
+
+    @Test
+    public void testCompactionFoldsLogIntoSnapshot() throws IOException {
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile, 200);
+        TaskList tasks = journal.load();
+        for (int i = 0; i < 10; i++) {
+            addTask(journal, tasks, new Task("task " + i));
+        }
+        journal.close();
+
+        assertTrue(snapshotFile.exists());
+        assertTrue(journalFile.length() < 200);
+        TaskList reloaded = reload();
+        assertEquals(10, reloaded.size());
+        assertEquals("task 9", reloaded.get(9).getDescription());
+    }
+
+    @Test
+    public void testChangesDuringCompactionSurviveReload() {
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile);
+        TaskList tasks = journal.load();
+        for (int i = 0; i < 1000; i++) {
+            addTask(journal, tasks, new Task("task " + i));
+        }
+        journal.compact();
+        for (int i = 0; i < 1000; i += 2) {
+            tasks.get(i).setStatus(Status.DONE);
+            journal.recordStatus(tasks.get(i));
+        }
+        tasks.remove(0);
+        journal.recordRemoved(0);
+        addTask(journal, tasks, new Task("task 1000"));
+        journal.close();
+
+        TaskList reloaded = reload();
+        assertEquals(1000, reloaded.size());
+        assertEquals("task 1", reloaded.get(0).getDescription());
+        assertEquals(Status.TODO, reloaded.get(0).getStatus());
+        assertEquals(Status.DONE, reloaded.get(1).getStatus());
+        assertEquals("task 1000", reloaded.get(999).getDescription());
+    }
+
+    @Test
+    public void testBinarySnapshotIsRead() throws IOException {
+        Task task = new Task("write essay");
+        task.setStatus(Status.UP_NEXT);
+        try (OutputStream out = new FileOutputStream(snapshotFile)) {
+            BinaryTaskWriter.write(Arrays.asList(task, new Task("read chapter")), out);
+        }
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile);
+        TaskList tasks = journal.load();
+        assertEquals(2, tasks.size());
+        assertEquals(Status.UP_NEXT, tasks.get(0).getStatus());
+        tasks.get(1).setStatus(Status.DONE);
+        journal.recordStatus(tasks.get(1));
+        journal.close();
+
+        assertEquals(Status.DONE, reload().get(1).getStatus());
+    }
+
+    @Test
+    public void testUnreadableSnapshotIsNeverCompacted() throws IOException {
+        byte[] original = "[{\"description\":\"write essay\",\"tags\":[]} garbage".getBytes(StandardCharsets.UTF_8);
+        Files.write(snapshotFile.toPath(), original);
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile, 100);
+        TaskList tasks = journal.load();
+        for (int i = 0; i < 5; i++) {
+            addTask(journal, tasks, new Task("task " + i));
+        }
+        tasks.add(new Task("imported"));
+        journal.compact();
+        journal.close();
+
+        assertArrayEquals(original, Files.readAllBytes(snapshotFile.toPath()));
+        TaskList reloaded = reload();
+        assertEquals(tasks.size(), reloaded.size());
+        assertEquals("imported", reloaded.get(reloaded.size() - 1).getDescription());
+    }
+
+    private void addTask(TaskJournal journal, TaskList tasks, Task task) {
+        tasks.add(task);
+        journal.recordAdded(task);
+    }
+
+    private TaskList reload() {
+        TaskJournal journal = new TaskJournal(journalFile, snapshotFile);
+        TaskList tasks = journal.load();
+        journal.close();
+        return tasks;
+    }
+}
@@ -0,0 +1,104 @@
+import model.DueDate;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.Test;
+import parsers.TaskJsonDecoder;
+import parsers.TaskParser;
+import persistence.Jsonifier;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskJsonDecoder {
+
+    @Test
+    public void testDecodesTasksWrittenByJsonifier() {
+        Task t1 = new Task("Read collaboration policy ## cpsc210; project; important; up next");
+        Task t2 = new Task("Buy groceries ## errands; urgent; done");
+        t2.setDueDate(new DueDate());
+        List<Task> tasks = Arrays.asList(t1, t2, new Task("plain"));
+        List<Task> decoded = decode(Jsonifier.taskListToJson(tasks).toString());
+        assertEquals(tasks, decoded);
+        assertTrue(decoded.get(0).containsTag("project"));
+        assertEquals(Status.UP_NEXT, decoded.get(0).getStatus());
+        assertTrue(decoded.get(1).getPriority().isUrgent());
+        assertEquals(t2.getDueDate(), decoded.get(1).getDueDate());
+    }
+
+    @Test
+    public void testKeysInAnyOrderAndUnknownKeysSkipped() {
+        String input = "[{\"status\":\"IN_PROGRESS\",\"extra\":{\"nested\":[1,2,{\"a\":\"}\"}]},"
+                + "\"priority\":{\"urgent\":true,\"important\":false},\"due-date\":null,"
+                + "\"tags\":[{\"name\":\"x\"}],\"description\":\"reordered \\\"quoted\\\" \\u00e9\"}]";
+        List<Task> decoded = decode(input);
+        assertEquals(1, decoded.size());
+        assertEquals("reordered \"quoted\" \u00e9", decoded.get(0).getDescription());
+        assertEquals(Status.IN_PROGRESS, decoded.get(0).getStatus());
+        assertTrue(decoded.get(0).getPriority().isUrgent());
+        assertTrue(decoded.get(0).containsTag("x"));
+    }
+
+    @Test
+    public void testSkipsElementsThatAreNotTasksLikeTaskParser() {
+        String input = "[" + task("one") + ",1,\"two\",null,[],{\"description\":\"no fields\"},"
+                + "{\"description\":\"bad status\",\"tags\":[],\"due-date\":null,"
+                + "\"priority\":{\"important\":true,\"urgent\":false},\"status\":\"LATER\"}," + task("three") + "]";
+        TaskJsonDecoder decoder = new TaskJsonDecoder(new StringReader(input));
+        List<Task> decoded = new ArrayList<>();
+        decoder.forEachRemaining(decoded::add);
+        assertEquals(new TaskParser().parse(input), decoded);
+        assertEquals(2, decoded.size());
+        assertEquals(8, decoder.getRecordCount());
+        assertEquals(6, decoder.getSkippedCount());
+    }
+
+    @Test
+    public void testStopsAtMalformedInputKeepingTasksReadSoFar() {
+        String input = "[" + task("one") + "," + task("two") + ",{\"description\":";
+        TaskJsonDecoder decoder = new TaskJsonDecoder(new StringReader(input));
+        assertEquals("one", decoder.next().getDescription());
+        assertEquals("two", decoder.next().getDescription());
+        assertFalse(decoder.hasNext());
+        assertEquals(1, decoder.getSkippedCount());
+        try {
+            decoder.next();
+            fail("Should have thrown NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testEmptyArrayHasNoTasks() {
+        assertEquals(Collections.emptyList(), decode(" [ ] "));
+        assertEquals(Collections.emptyList(), decode("[]"));
+    }
+
+    @Test
+    public void testLinesSkipCorruptLinesAndGoOn() {
+        String input = task("one") + "\nnot json\n\n{\"description\":\"torn\n" + task("two") + "\n";
+        TaskJsonDecoder decoder = TaskJsonDecoder.forLines(new StringReader(input));
+        List<Task> decoded = new ArrayList<>();
+        decoder.forEachRemaining(decoded::add);
+        assertEquals(2, decoded.size());
+        assertEquals("two", decoded.get(1).getDescription());
+        assertEquals(2, decoder.getCorruptLines());
+    }
+
+    private static List<Task> decode(String input) {
+        List<Task> tasks = new ArrayList<>();
+        new TaskJsonDecoder(new StringReader(input)).forEachRemaining(tasks::add);
+        return tasks;
+    }
+
+    private static String task(String description) {
+        return "{\"description\":\"" + description + "\",\"tags\":[{\"name\":\"cpsc210\"}],\"due-date\":null,"
+                + "\"priority\":{\"important\":true,\"urgent\":false},\"status\":\"UP_NEXT\"}";
+    }
+}
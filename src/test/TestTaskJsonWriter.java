@@ -0,0 +1,88 @@
+import model.DueDate;
+import model.Task;
+import org.json.JSONArray;
+import org.junit.jupiter.api.Test;
+import parsers.TaskJsonDecoder;
+import parsers.TaskParser;
+import persistence.Jsonifier;
+import persistence.TaskJsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskJsonWriter {
+
+    @Test
+    public void testRoundTripInBothSchemaVersions() throws IOException {
+        List<Task> tasks = sampleTasks();
+        for (int version : new int[] {TaskJsonWriter.LEGACY_SCHEMA_VERSION, TaskJsonWriter.SCHEMA_VERSION}) {
+            String json = write(tasks, version);
+            assertEquals(tasks, decode(json));
+            assertEquals(tasks, new TaskParser().parse(json));
+            assertEquals(tasks.get(1).getDueDate(), decode(json).get(1).getDueDate());
+        }
+    }
+
+    @Test
+    public void testLegacyVersionMatchesJsonifier() throws IOException {
+        List<Task> tasks = sampleTasks();
+        JSONArray written = new JSONArray(write(tasks, TaskJsonWriter.LEGACY_SCHEMA_VERSION));
+        assertTrue(written.similar(Jsonifier.taskListToJson(tasks)));
+    }
+
+    @Test
+    public void testEmptyListIsEmptyArray() throws IOException {
+        assertEquals("[]", write(Collections.emptyList(), TaskJsonWriter.SCHEMA_VERSION));
+    }
+
+    @Test
+    public void testCountsTasksWritten() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskJsonWriter writer = new TaskJsonWriter(out);
+        writer.writeAll(sampleTasks());
+        writer.write(new Task("one more"));
+        assertEquals(4, writer.getTasksWritten());
+        writer.close();
+        assertEquals(4, decode(new String(out.toByteArray(), StandardCharsets.UTF_8)).size());
+    }
+
+    @Test
+    public void testSpecialCharactersAreEscaped() throws IOException {
+        Task task = new Task("quote \" backslash \\ tab \t line\nbreak \u00e9\u4e2d \ud83d\ude00");
+        task.addTag("tag \"quoted\"");
+        String json = write(Collections.singletonList(task), TaskJsonWriter.SCHEMA_VERSION);
+        assertFalse(json.contains("\n"));
+        Task decoded = decode(json).get(0);
+        assertEquals(task.getDescription(), decoded.getDescription());
+        assertTrue(decoded.containsTag("tag \"quoted\""));
+    }
+
+    private static List<Task> sampleTasks() {
+        Task t1 = new Task("Read collaboration policy ## cpsc210; project; important; up next");
+        Task t2 = new Task("Buy groceries ## errands; urgent; in progress");
+        t2.setDueDate(new DueDate());
+        return Arrays.asList(t1, t2, new Task("plain ## done"));
+    }
+
+    private static String write(List<Task> tasks, int schemaVersion) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TaskJsonWriter writer = new TaskJsonWriter(out, schemaVersion)) {
+            writer.writeAll(tasks);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static List<Task> decode(String json) {
+        List<Task> tasks = new ArrayList<>();
+        new TaskJsonDecoder(new StringReader(json)).forEachRemaining(tasks::add);
+        return tasks;
+    }
+}
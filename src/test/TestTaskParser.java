@@ -0,0 +1,72 @@
+import model.Task;
+import org.junit.jupiter.api.Test;
+import parsers.TaskParser;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskParser {
+    private final TaskParser parser = new TaskParser();
+
+    @Test
+    public void testParseSkipsMalformedElements() {
+        String input = "[" + task("one") + ",1,\"two\",null,[],{\"description\":\"no fields\"}," + task("three") + "]";
+        List<Task> tasks = parser.parse(input);
+        assertEquals(2, tasks.size());
+        assertEquals("one", tasks.get(0).getDescription());
+        assertEquals("three", tasks.get(1).getDescription());
+    }
+
+    @Test
+    public void testParseKeepsTasksBeforeBrokenArray() {
+        List<Task> tasks = parser.parse("[" + task("one") + "," + task("two") + ",{\"description\":");
+        assertEquals(2, tasks.size());
+        assertEquals("two", tasks.get(1).getDescription());
+    }
+
+    @Test
+    public void testParseReadsNdjson() {
+        List<Task> tasks = parser.parse(task("one") + "\nnot json\n" + task("two") + "\n");
+        assertEquals(2, tasks.size());
+        assertEquals("two", tasks.get(1).getDescription());
+    }
+
+    @Test
+    public void testParallelParseMatchesParseOnMalformedInput() {
+        String[] inputs = {
+            "[]",
+            " [ ] ",
+            "[" + task("one") + ",1,\"two\",null,[],{\"description\":\"no fields\"}," + task("three") + "]",
+            "[" + task("one") + "," + task("two") + ",{\"description\":",
+            "[" + task("one") + " " + task("two") + "]",
+            "[" + task("one") + ",," + task("two") + "]",
+            "[" + task("one") + "," + task("two") + ",]",
+            "[" + task("one") + "}," + task("two") + "]",
+            "[" + task("one") + "] trailing",
+            task("one") + "\nnot json\n" + task("two") + "\n",
+            "not json at all",
+            manyTasksWithMalformedElements(),
+            manyTasksWithMalformedElements() + "{\"description\":\"torn",
+        };
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (String input : inputs) {
+            assertEquals(parser.parse(input), parser.parseParallel(input, pool), input);
+        }
+    }
+
+    private static String manyTasksWithMalformedElements() {
+        StringBuilder input = new StringBuilder("[");
+        for (int i = 0; i < 3 * TaskParser.PARALLEL_CUTOFF; i++) {
+            input.append(i % 97 == 0 ? "42" : i % 89 == 0 ? "{\"description\":\"no fields\"}" : task("task " + i));
+            input.append(',');
+        }
+        return input.append(task("last")).append(']').toString();
+    }
+
+    private static String task(String description) {
+        return "{\"description\":\"" + description + "\",\"tags\":[{\"name\":\"cpsc210\"}],\"due-date\":null,"
+                + "\"priority\":{\"important\":true,\"urgent\":false},\"status\":\"UP_NEXT\"}";
+    }
+}
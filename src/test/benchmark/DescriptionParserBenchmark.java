@@ -0,0 +1,72 @@
+package benchmark;
+
+import model.Task;
+import parsers.DescriptionLexer;
+import parsers.Parser;
+import parsers.TagParser;
+import parsers.exceptions.ParsingException;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+// Compares TagParser with DescriptionLexer on realistic task descriptions, reporting the time
+// and the bytes allocated per parse. Each round runs a warm-up pass before it is measured.
+// Usage: java benchmark.DescriptionParserBenchmark [parses per round, default 1000000] [rounds, default 5]
+public class DescriptionParserBenchmark {
+    private static final String[] DESCRIPTIONS = {
+        "Read collaboration policy of the term project ## cpsc210; project; today; important",
+        "Make note of assignments deadlines. ## cpsc210; assigns; urgent; up next",
+        "Buy groceries ## home; errands; tomorrow",
+        "Review lecture notes and practice problems ## cpsc210; exams; in progress; important; urgent",
+        "Call the bank about the card ## errands; Done",
+        "Plan the sprint ## work; planning; to do; work; PLANNING"
+    };
+
+    public static void main(String[] args) {
+        int parses = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Task task = new Task("benchmark");
+        for (int i = 0; i < rounds; i++) {
+            measure("TagParser", TagParser::new, task, parses);
+            measure("DescriptionLexer", DescriptionLexer::new, task, parses);
+        }
+    }
+
+    // EFFECTS: warms up, then parses descriptions parses times with parsers from newParser
+    //     and prints the time and bytes allocated per parse
+    private static void measure(String name, Supplier<Parser> newParser, Task task, int parses) {
+        run(newParser, task, parses);
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int checksum = run(newParser, task, parses);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.out.printf("%-18s %8.1f ns/parse  %8.1f bytes/parse  (checksum %d)%n",
+                name, (double) elapsed / parses, (double) allocated / parses, checksum);
+    }
+
+    // EFFECTS: parses descriptions parses times into task, with a new parser each time as Task does;
+    //     returns a checksum of the parsed descriptions so the work cannot be optimized away
+    private static int run(Supplier<Parser> newParser, Task task, int parses) {
+        int checksum = 0;
+        for (int i = 0; i < parses; i++) {
+            Parser parser = newParser.get();
+            try {
+                parser.parse(DESCRIPTIONS[i % DESCRIPTIONS.length], task);
+                checksum += parser.getDescription().length();
+            } catch (ParsingException e) {
+                checksum--;
+            }
+        }
+        return checksum;
+    }
+
+    // EFFECTS: returns the bytes allocated so far by the current thread, or 0 if the JVM cannot tell
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import model.Project;
+import model.ProjectSummary;
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Times ProjectSummary over a forest of projects on fork/join pools of 1, 2, 4, ... threads, up to the
+// number of cores, so the scaling of the summary with the number of workers can be compared.
+// Every tenth task is also part of a second project, so workers mark shared tasks as well as projects.
+// Usage: java benchmark.ProjectSummaryBenchmark [projects, default 2000] [tasks per project, default 500]
+//     [rounds, default 5]
+public class ProjectSummaryBenchmark {
+
+    public static void main(String[] args) {
+        int projects = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int tasksPerProject = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        List<Project> forest = generate(projects, tasksPerProject);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println(cores + " cores");
+        for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            measure(forest, pool, rounds);
+            pool.shutdown();
+        }
+    }
+
+    // EFFECTS: warms up, then summarizes forest rounds times on pool and prints the best time
+    private static void measure(List<Project> forest, ForkJoinPool pool, int rounds) {
+        ProjectSummary summary = ProjectSummary.of(forest, pool);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            summary = ProjectSummary.of(forest, pool);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%2d threads %8.1f ms  %8d tasks  %6d projects%n", pool.getParallelism(), best / 1e6,
+                summary.getTaskCount(), summary.getProjectCount());
+    }
+
+    // EFFECTS: returns projects top-level projects, each with a sub-project holding tasksPerProject tasks;
+    //     every tenth task is also added to the next top-level project
+    private static List<Project> generate(int projects, int tasksPerProject) {
+        List<Project> forest = new ArrayList<>(projects);
+        for (int i = 0; i < projects; i++) {
+            forest.add(new Project("Project " + i));
+        }
+        for (int i = 0; i < projects; i++) {
+            Project sub = new Project("Sub-project " + i);
+            for (int j = 0; j < tasksPerProject; j++) {
+                Task task = new Task("Task " + j + " of project " + i);
+                task.setEstimatedTimeToComplete(j % 8);
+                sub.add(task);
+                if (j % 10 == 0) {
+                    forest.get((i + 1) % projects).add(task);
+                }
+            }
+            forest.get(i).add(sub);
+        }
+        return forest;
+    }
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+import parsers.BinaryTaskParser;
+import parsers.TaskJsonDecoder;
+import parsers.TaskParser;
+import parsers.TaskStreamParser;
+import persistence.BinaryTaskWriter;
+import persistence.TaskJsonWriter;
+import utility.JsonFileIO;
+import utility.NdjsonTaskFile;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Compares the ways of loading a large task file:
+//     the original JsonFileIO.read (whole file into a String, then TaskParser.parse),
+//     streaming JSON with org.json, the TaskJsonDecoder codec, TaskParser.parseParallel,
+//     NDJSON read sequentially and in parallel byte ranges,
+//     the binary format read into the heap, and the memory-mapped binary format.
+// Usage: java benchmark.TaskLoadBenchmark [number of tasks, default 1000000] [rounds, default 3]
+public class TaskLoadBenchmark {
+    private static final String[] TAGS = {"cpsc210", "exams", "planning", "home", "work", "errands"};
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        File json = File.createTempFile("tasks", ".json");
+        File binary = File.createTempFile("tasks", ".bin");
+        File ndjson = File.createTempFile("tasks", ".ndjson");
+        json.deleteOnExit();
+        binary.deleteOnExit();
+        ndjson.deleteOnExit();
+        List<Task> tasks = generate(size);
+        writeFiles(tasks, json, binary);
+        NdjsonTaskFile.write(ndjson, tasks);
+        System.out.printf("%d tasks: json %d bytes, binary %d bytes%n", size, json.length(), binary.length());
+        for (int i = 0; i < rounds; i++) {
+            time("legacy JsonFileIO.read", () -> legacyRead(json));
+            time("streaming json", () -> streamRead(json));
+            time("json decoder", () -> decoderRead(json));
+            time("parallel json", () -> new TaskParser().parseParallel(
+                    new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8)));
+            time("ndjson", () -> {
+                List<Task> read = new ArrayList<>();
+                NdjsonTaskFile.read(ndjson, read::add);
+                return read;
+            });
+            time("parallel ndjson", () -> NdjsonTaskFile.readParallel(ndjson,
+                    Runtime.getRuntime().availableProcessors()));
+            time("binary (heap)", () -> new BinaryTaskParser().parse(
+                    ByteBuffer.wrap(Files.readAllBytes(binary.toPath()))));
+            time("binary (mmap)", () -> JsonFileIO.readMapped(binary));
+        }
+    }
+
+    // EFFECTS: returns size tasks with realistic descriptions, tags, priorities and due dates
+    private static List<Task> generate(int size) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = new Task("Review lecture notes and practice problems, part " + i);
+            task.addTag(TAGS[i % TAGS.length]);
+            task.addTag(TAGS[(i / TAGS.length) % TAGS.length]);
+            task.setStatus(Status.values()[i % Status.values().length]);
+            task.setImportant(i % 3 == 0);
+            task.setUrgent(i % 5 == 0);
+            task.setDueDate(i % 2 == 0 ? new DueDate() : Task.NO_DUE_DATE);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    // EFFECTS: writes tasks to json in JSON format and to binary in binary format
+    private static void writeFiles(List<Task> tasks, File json, File binary) throws IOException {
+        try (TaskJsonWriter writer = new TaskJsonWriter(new FileOutputStream(json))) {
+            writer.writeAll(tasks);
+        }
+        try (OutputStream out = new FileOutputStream(binary)) {
+            BinaryTaskWriter.write(tasks, out);
+        }
+    }
+
+    // EFFECTS: reads file the way JsonFileIO.read originally did
+    private static List<Task> legacyRead(File file) throws IOException {
+        StringBuilder stringBuilder = new StringBuilder();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                stringBuilder.append(line);
+            }
+        }
+        return new TaskParser().parse(stringBuilder.toString());
+    }
+
+    // EFFECTS: reads file with the streaming JSON parser
+    private static List<Task> streamRead(File file) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            new TaskStreamParser(reader).forEachRemaining(tasks::add);
+        }
+        return tasks;
+    }
+
+    // EFFECTS: reads file with the dedicated task decoder
+    private static List<Task> decoderRead(File file) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            new TaskJsonDecoder(reader).forEachRemaining(tasks::add);
+        }
+        return tasks;
+    }
+
+    // EFFECTS: runs load once and prints its duration, the number of tasks loaded and the heap in use
+    private static void time(String name, Callable<List<Task>> load) throws Exception {
+        System.gc();
+        long start = System.nanoTime();
+        List<Task> tasks = load.call();
+        long elapsed = System.nanoTime() - start;
+        Runtime runtime = Runtime.getRuntime();
+        long heapMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        System.out.printf("%-24s %8.1f ms  %8d tasks  %6d MB heap%n", name, elapsed / 1e6, tasks.size(), heapMb);
+    }
+}